@@ -1,11 +1,10 @@
 package Breccia.Web.imager;
 
 import Breccia.parser.*;
+import Breccia.Web.imager.OffsetIndex.HeadOffsets;
+import Breccia.Web.imager.TimeLimitedText.OvertimeMatch;
 import Breccia.XML.translator.BrecciaXCursor;
 import Java.*;
-import java.awt.Font;
-import java.awt.FontFormatException;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
@@ -14,14 +13,16 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.OpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import java.util.StringTokenizer;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -45,8 +46,11 @@ import static Breccia.parser.plain.Language.impliesNewline;
 import static Breccia.parser.plain.Language.isSpace;
 import static Breccia.parser.plain.Project.newSourceReader;
 import static Breccia.Web.imager.ErrorAtFile.wrnHead;
+import static Breccia.Web.imager.ImageMould.messageKey;
+import static Breccia.Web.imager.ImageNodes.appendSourceText;
 import static Breccia.Web.imager.ImageNodes.head;
 import static Breccia.Web.imager.ImageNodes.isFractum;
+import static Breccia.Web.imager.ImageNodes.isTitlingLabel;
 import static Breccia.Web.imager.ImageNodes.nsHTML;
 import static Breccia.Web.imager.ImageNodes.nsImager;
 import static Breccia.Web.imager.ImageNodes.nsXMLNS;
@@ -61,23 +65,26 @@ import static Breccia.Web.imager.Project.looksBrecciaLike;
 import static Breccia.Web.imager.Project.looksImageLike;
 import static Breccia.Web.imager.Project.mathBlockDelimiter;
 import static Breccia.Web.imager.Project.sourceSibling;
+import static Breccia.Web.imager.Project.temporarySibling;
 import static Breccia.Web.imager.Project.zeroBased;
-import static java.awt.Font.createFont;
-import static java.awt.Font.TRUETYPE_FONT;
-import static Java.Hashing.initialCapacity;
 import static Java.IntralineCharacterPointer.markedLine;
 import static java.lang.Character.charCount;
 import static java.lang.Character.toLowerCase;
 import static java.lang.Integer.parseInt;
 import static java.lang.Integer.parseUnsignedInt;
+import static java.lang.System.arraycopy;
 import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.deleteIfExists;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.isDirectory;
 import static java.nio.file.Files.isRegularFile;
+import static java.nio.file.Files.move;
 import static java.nio.file.Files.newBufferedReader;
 import static java.nio.file.Files.newOutputStream;
-import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static Java.Nodes.hasName;
+import static Java.Nodes.isElement;
 import static Java.Nodes.isText;
 import static Java.Nodes.nextSibling;
 import static Java.Nodes.parentAsElement;
@@ -97,6 +104,11 @@ import static Java.Unicode.generalCategory;
 import static Java.URI_References.isRemote;
 import static java.util.Arrays.sort;
 import static java.util.logging.Level.WARNING;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 import static javax.xml.transform.OutputKeys.*;
 
 
@@ -115,16 +127,7 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
         this.mould = mould;
         opt = mould.opt;
         parentalHeadPatternCompiler = new PatternCompiler( mould );
-        objectClausePatternCompiler = new ObjectClausePatternCompiler( mould );
-
-      // Glyph-test font
-      // ───────────────
-        final String f = opt.glyphTestFont();
-        if( !f.equals( "none" )) {
-            try( final var in = new FileInputStream( f )) {
-                glyphTestFont = createFont( TRUETYPE_FONT/*includes all of OpenType*/,
-                  /*buffered by callee in JDK 17*/in); }
-            catch( FontFormatException|IOException x ) { throw new Unhandled( x ); }}}
+        objectClausePatternCompiler = new ObjectClausePatternCompiler( mould ); }
 
 
 
@@ -139,11 +142,28 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
     public @Override void finish( Path sourceFile, final Path imageFile ) throws ErrorAtFile { // [F]
-        final Element fileFractum = fileFractum( imageFile );
-        finish( sourceFile, fileFractum );
-        try { write( fileFractum.getOwnerDocument(), imageFile ); }
-        catch( IOException|TransformerException x ) {
-            throw new ErrorAtFile( imageFile, "Unable to write image file", x ); }}
+        final Path imageFileTemp = temporarySibling( imageFile ); // [AR]
+        try {
+            final Document dHanded = mould.documentHandoff.take( imageFile ); // [DH]
+            final Element fileFractum = dHanded == null ?
+              fileFractum(imageFileTemp) : fileFractum(dHanded);
+            try { finish( sourceFile, fileFractum ); }
+            finally { // [RD]
+                headTexts.clear();
+                offsets.clear(); }
+            try {
+                write( fileFractum.getOwnerDocument(), imageFileTemp );
+                move( imageFileTemp, imageFile, ATOMIC_MOVE, REPLACE_EXISTING ); }
+            catch( IOException|TransformerException x ) {
+                throw new ErrorAtFile( imageFile, "Unable to write image file", x ); }}
+        catch( final ErrorAtFile x ) {
+            try { deleteIfExists( imageFileTemp ); } // Leaving any former image file in place.
+            catch( IOException xD ) { x.addSuppressed( xD ); }
+            throw x; }
+        try { FractaIndex.write( imageFile, sourceFile,
+              recorded( imageSibling(sourceFile).normalize() )); }
+        catch( IOException x ) {
+            throw new ErrorAtFile( imageFile, "Unable to write fracta index", x ); }}
 
 
 
@@ -211,10 +231,12 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
                           of `ParseError` is available for the exception, in case the caller wants it. */
                     throw xT; }}
             final Document d = (Document)(toDOM.getNode());
+            toDOM.setNode( null ); // [RD]
 
           // Glyph testing
           // ─────────────
-            if( glyphTestFont != null ) {
+            final GlyphCoverage coverage = mould.glyphCoverage; // Shared by all translators.
+            if( coverage != null ) {
                 unsMap.clear(); // Map of unglyphed characters.
                 Node n = d.getFirstChild();
                 do {
@@ -223,13 +245,14 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
                     assert !nText.isElementContentWhitespace(); /* The `sourceXCursor` has produced
                       ‘X-Breccia with no ignorable whitespace’. */
                     final String text = nText.getData();
+                    if( coverage.hasGlyphsASCII( text )) continue; // Told in bulk for ASCII.
                     for( int ch, c = 0, cN = text.length(); c < cN; c += charCount(ch) ) {
                         ch = text.codePointAt( c );
                         if( ch == mathBlockDelimiter && opt.toImageMath() ) continue;
-                        if( glyphTestFont.canDisplay( ch )) continue;
+                        if( coverage.hasGlyph( ch )) continue;
                         UnglyphedCharacter un = unsMap.get( ch );
                         if( un == null ) {
-                            un = new UnglyphedCharacter( glyphTestFont.getFontName(), ch,
+                            un = new UnglyphedCharacter( coverage.fontName(), ch,
                               characterPointer( parentAsElement(nText), c ));
                             unsMap.put( ch, un ); }
                         ++un.count; }}
@@ -245,9 +268,17 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
           // XHTML image file ← XHTML DOM
           // ────────────────
-            write( d, imageFile, CREATE_NEW ); }
+            d.normalize(); // Merging adjacent text nodes, as a reparse of the image file would. [DH]
+            final int sourceLength = xuncEnd( fileFractum(d),
+              imagedBodyFracta.toArray(imagedBodyFractaType) );
+            if( !mould.documentHandoff.offer( imageFile, d, DocumentHandoff.weightOf( sourceLength ))) {
+                write( d, temporarySibling(imageFile) ); }} /* Exceeding the budget, so writing it
+                  to an interim file, replacing any left by an interrupted command. [AR] */
         catch( IOException|TransformerException x ) {
-            throw new ErrorAtFile( imageFile, "Unable to make image file", x ); }}
+            throw new ErrorAtFile( imageFile, "Unable to make image file", x ); }
+        finally { // [RD]
+            headTexts.clear();
+            offsets.clear(); }}
 
 
 
@@ -258,7 +289,7 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       *
       *     @return True if the attempt succeeded, false if the region was left unchanged.
       */
-    private static boolean advancePast( final Matcher m ) {
+    private static boolean advancePast( final RegionMatcher m ) {
         return advancePast( m.start(), m, m.regionEnd() ); }
 
 
@@ -268,7 +299,7 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       *     @param rEnd The number to set for `m.regionEnd`.
       *     @return True if the attempt succeeded, false if the region was left unchanged.
       */
-    private static boolean advancePast( final Matcher m, final int rEnd ) {
+    private static boolean advancePast( final RegionMatcher m, final int rEnd ) {
         return advancePast( m.start(), m, rEnd ); }
 
 
@@ -279,7 +310,7 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       *     @param rEnd The number to set for `m.regionEnd`.
       *     @return True if the attempt succeeded, false if the region was left unchanged.
       */
-    private static boolean advancePast( final int mStart, final Matcher m, final int rEnd ) {
+    private static boolean advancePast( final int mStart, final RegionMatcher m, final int rEnd ) {
         if( mStart == rEnd ) return false; // Maybe possible given a zero-width assertion.
         assert mStart < rEnd;
         m.region( mStart + 1, rEnd ); /* Far enough to avoid a rematch.
@@ -289,6 +320,55 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
+    /** Appends to `b` the keyword formed from a token of text, for a fractum `id` attribute.
+      *
+      *     @param text The text of a fractal head.
+      *     @param start The offset in `text` of the token, a word or other sequence of characters
+      *       delimited by whitespace.
+      *     @param end The offset in `text` of the end boundary of the token.
+      *     @param limit The maximum length of the keyword, beyond which it is truncated.
+      */
+    private static void appendKeyword( final String text, final int start, final int end,
+          final int limit, final StringBuilder b ) {
+        final int bStart = b.length();
+        boolean wasLastMasked = false;
+        for( int c = start; c < end; ++c ) {
+            final char ch = text.charAt( c );
+            if( isKeywordCharacter( ch )) {
+                b.append( ch );
+                wasLastMasked = false; }
+            else if( wasLastMasked ) continue; // Omit, so collapsing to a single mask character.
+            else {
+                b.append( '-' ); // Masking it for sake of pretty URLs, uncomplicated by encoding.
+                wasLastMasked = true; }}
+        int c = bStart; // Trim any mask characters at the leading or trailing edges. [MT]
+        if( b.length() - bStart > 1  &&  b.charAt(c) == '-' ) b.deleteCharAt( c );
+        c = b.length() - 1;
+        if( b.length() - bStart > 1  &&  b.charAt(c) == '-' ) b.deleteCharAt( c );
+        final char ch = b.charAt( bStart );
+        if( 'A' <= ch && ch <= 'Z' ) b.setCharAt( bStart, toLowerCase(ch) ); /* Lower-casing the first
+          letter for sake of ID stability, as the keyword might lead a sentence now, then move under
+          editing. */
+        if( b.length() - bStart > limit ) b.setLength( bStart + limit ); }
+
+
+
+    /** Bullet classes of code points, each a bit of `bulletClasses.of`.
+      */
+    private static final int bulletBoldable = 0x1, bulletMathDelimiter = 0x2, bulletMinor = 0x4,
+      bulletSpace = 0x8;
+
+
+
+    /** The classes of each code point as it would occur in the free-form part of a bullet,
+      * looked up once per code point in place of repeated testing by general category.
+      */
+    private static final CodePointClasses bulletClasses = new CodePointClasses( ch ->
+        (isBoldable(ch) ? bulletBoldable : 0) | (isMathDelimiter(ch) ? bulletMathDelimiter : 0)
+      | (isMinor(ch) ? bulletMinor : 0) | (isSpace(ch) ? bulletSpace : 0));
+
+
+
     /** @param granum A granal element other than `FileFractum`.
       */
     protected final CharacterPointer characterPointer( Element granum ) {
@@ -303,14 +383,14 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
         final String textRegional; {
             final Element fH = ownerHeadOrSelf( granum );
             assert fH != null; // Caller obeys the API.
-            textRegional = sourceText( fH );
-            lineLocator.region( fH ); }
+            textRegional = headText( fH );
+            lineLocator.region( offsets.head(fH) ); }
         final IntArrayExtensor endsRegional = lineLocator.endsRegional;
         final int offsetRegional = lineLocator.offsetRegional();
 
       // Locate the line
       // ───────────────
-        int offset = c + parseUnsignedInt( granum.getAttribute( "xunc" )); // `granum` → whole text
+        int offset = c + offsets.xunc( granum ); // `granum` → whole text
         lineLocator.locateLine( offset );
 
       // Resolve its content
@@ -322,11 +402,26 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       // Form the pointer
       // ────────────────
         offset -= offsetRegional; // whole text → `textRegional`
-        final int column = mould.gcc.clusterCount( textRegional, lineStart, offset );
+        final int column = gcc.clusterCount( textRegional, lineStart, offset );
         return new CharacterPointer( line, column, lineLocator.number() ); }
 
 
 
+    /** Returns a pointer to the character at offset `c` of `granum`, to be formed only if needed.
+      *
+      *     @see #characterPointer(Element,int)
+      */
+    private DeferredPointer deferredPointer( final Element granum, final int c ) {
+        return new DeferredPointer( offsets.xunc(granum) + c, () -> characterPointer( granum, c )); }
+
+
+
+    /** The title of the present image document, or null if none is yet derived.
+      */
+    private String documentTitle;
+
+
+
     /** @param imageFile The absolute path of an image file.
       * @return The image of that path’s file fractum.
       */
@@ -342,7 +437,17 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
             finally { imageReader.close(); }}
         catch( IOException|TransformerException|XMLStreamException x ) {
             throw new ErrorAtFile( imageFile, "Unable to read image file", x ); }
+        finally { fromStream.setReader( null ); } // [RD]
         final Document d = (Document)(toDOM.getNode());
+        toDOM.setNode( null ); // [RD]
+        return fileFractum( d ); }
+
+
+
+    /** @param d An image document.
+      * @return The image of its file fractum.
+      */
+    private static Element fileFractum( final Document d ) {
         final Element e = (Element)( d.getDocumentElement()./*body*/getLastChild().getFirstChild() );
         assert hasName( "FileFractum", e );
         return e; }
@@ -364,15 +469,15 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
             final Node end = successorAfter( head );
             Element tL = successorTitlingLabel( head, end );
             if( tL == null ) return null;
-            lineLocator.region( head );
-            lineLocator.locateLine( tL );
+            lineLocator.region( offsets.head(head) );
+            lineLocator.locateLine( offsets.xunc(tL) );
             int nL = lineLocator.number();
             final StringBuilder b = clear( stringBuilder );
             for( ;; ) {
                 b.append( collapseWhitespace( clear(stringBuilder2).append( textChildFlat( tL ))));
                 tL = successorTitlingLabel( tL, end );
                 if( tL == null ) break;
-                lineLocator.locateLine( tL );
+                lineLocator.locateLine( offsets.xunc(tL) );
                 if( lineLocator.number() != ++nL ) break; // Consecutive labels only comprise the title.
                 b.append( ' ' ); }
             return b.toString(); }
@@ -414,17 +519,43 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       * @param fileFractum The unfinished image of its file fractum.
       */
     protected void finish( final Path sourceFile, final Element fileFractum ) {
-        final Document d = fileFractum.getOwnerDocument();
-
-      // ═════════════
-      // Note carriers: pattern matching
-      // ═════════════
-        nC: for( Element pr = successorElement(fileFractum);  pr != null;  pr = successorElement(pr) ) {
-            if( !hasName( "Preposition", pr )) continue; // The preposition in the purview clause.
-            final Element nC/*note carrier*/ = ownerFractum( pr );
-            assert hasName( "NoteCarrier", nC );
-            final Node nPM = nextSibling( pr, "PatternMatcher" );
-            Node n;
+        Element cR = null; // Referential command of any afterlinker whose finishing is deferred.
+        Element cRBoundary = null; // Element at which to end the deferral, or null for the end.
+        for( Element e = successorElement(fileFractum);  e != null;  e = successorElement(e) ) {
+            if( e == cRBoundary ) { // Then the pass is through the head of the afterlinker.
+                finish_afterlinker( sourceFile, cR ); // [◦↑◦]
+                cR = cRBoundary = null; }
+            if( hasName( "Preposition", e )) finish_noteCarrier( sourceFile, e );
+            else if( hasName( "Reference", e )) finish_reference( sourceFile, e ); // [◦↓◦]
+            else if( hasName( "ReferentialCommand", e )) {
+                assert cR == null; // No afterlinker head holds more than one referential command.
+                cR = e; /* Deferring the finishing of its afterlinker until the pass is through
+                  the head, which holds any reference of the object clause to be hyperlinked first. */
+                cRBoundary = successorElementAfter( parentElement( e )); }}
+        if( cR != null ) finish_afterlinker( sourceFile, cR ); } // [◦↑◦]
+
+
+
+    /** Finishes the afterlinker of the given referential command, hyperlinking its object
+      * to the matching referent fractum.  [F, HF]
+      *
+      *     @param sourceFile The absolute path of the source file.
+      *     @param cR The image of the referential command.
+      */
+    private void finish_afterlinker( final Path sourceFile, final Element cR ) {
+        final Document d = cR.getOwnerDocument();
+        final Element linker/*afterlinker*/ = ownerFractum( cR );
+        assert hasName( "Afterlinker", linker ); /* Hyperlinking a formal reference
+          other than a linker’s?  Then sync with `formalReferenceAt` above. */
+
+      // Subject
+      // ────────
+        Node n;
+        final Matcher mSubject;  /* The pattern matcher of the subject clause successfully matched
+          to the subject, or null if there is no subject clause. */
+        if( (n = previousSibling( cR, "SubjectClause" )) != null ) {
+            final Node nPM = n/*SubjectClause*/.getLastChild(); {
+                assert hasName( "PatternMatcher", nPM ); }
 
             // Changing what follows?  Sync with code marked ‘PHM’ elsewhere.
             final Element eP = (Element) nPM.getFirstChild()/*delimiter*/.getNextSibling(); {
@@ -435,289 +566,311 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
                 try { jP = parentalHeadPatternCompiler.compile( eP, mm, sourceFile ); }
                 catch( final PatternSyntaxException x ) {
                     warn( sourceFile, eP, x );
-                    continue nC; }
+                    return; }
                 catch( final FailedInterpolation x ) {
                     warn( sourceFile, x );
-                    continue nC; }}
-            n = head( nC.getParentNode() ); // Wherein lies the text to which the note pertains.
+                    return; }}
+            n = head( linker.getParentNode() ); // Wherein lies the subject.
             if( n == null ) {
-                final CharacterPointer p = characterPointer( pr/*start of purview clause*/ );
+                final CharacterPointer p = characterPointer( parentElement(nPM)/*SubjectClause*/ );
                 mould.warn( sourceFile, p, "Misplaced back reference, no parent head to refer to\n"
                   + p.markedLine() );
-                continue nC; }
-            final String tH = sourceText( n ); // Text of the head.
+                return; }
+            final String tH = headText( (Element)n ); // Text of the head.
             int c = 0;
             while( tH.charAt(c) == ' ' ) ++c; /* Past any perfect indent
               to the first non-plain-space character of the head. */
-            final Matcher m = jP.matcher( tH ).region( c, tH.length() );
-            if( !m.find() ) {
+            final Matcher m = mSubject = jP.matcher( timeLimited(tH) ).region( c, tH.length() );
+            final boolean isFound;
+            try { isFound = m.find(); }
+            catch( final OvertimeMatch x ) {
+                warn( sourceFile, eP, jP, x );
+                return; }
+            if( !isFound ) {
                 final CharacterPointer p = characterPointer( eP );
                 warn( sourceFile, p, "Broken back reference, no such text in parent head\n"
                   + p.markedLine(), jP );
-                continue nC; }
+                return; }
             if( m.group().isEmpty() ) { // Disallowed. [PHM]
                 final CharacterPointer p = characterPointer( eP );
                 warn( sourceFile, p, "Incomplete back reference, matches an empty text sequence\n"
                   + p.markedLine(), jP );
-                continue nC; }
+                return; }
             final int gN = m.groupCount();
             for( int g = 1; g <= gN; ++g ) {
                 final String capture = m.group( g );
-                if( capture == null || capture.isEmpty() ) { // Disallowed. [PHM]
+                if( capture == null || capture.isEmpty() ) { /* Disallowed by language [PHM]
+                      and `ObjectClausePatternCompiler.mSubject` API. */
                     final CharacterPointer p = characterPointer( eP );
                     warn( sourceFile, p, "Incomplete back reference, group " + g
                       + " captures nothing in the parent head\n" + p.markedLine(), jP );
-                    continue nC; }}}
-
+                    return; }}}
+        else mSubject = null;
 
-      // ══════════════
-      // URI references each formed as a hyperlink  [F, HF, ◦↓◦]
-      // ══════════════
-        for( Element e = successorElement(fileFractum);  e != null;  e = successorElement(e) ) {
-            if( !hasName( "Reference", e )) continue;
-            final Element eRef = e; // The reference encapsulated as an `Element`.
-            final Text tRef = (Text)eRef.getFirstChild(); // The reference encapsulated as `Text`.
-            final String hRef; { /*
-                For what follows, cf. `ImageMould.formalResources_recordFrom`. */
-                final String sRefOriginal = tRef.getData(); // The reference in string form.
-                final String sRef = mould.translate( sRefOriginal, sourceFile );
-                  // Applying any `-reference-mapping` translations.
-                final boolean isAlteredRef = !sRef.equals( sRefOriginal );
-                if( isAlteredRef ) {
-                    final String test = hRef( sourceFile, eRef, sRefOriginal, /*isAlteredRef*/false ); /*
-                      Always testing `sRefOriginal`, so verifying that it would have been hyperlinked,
-                      else warning the user.  For there are types of warning that are issued only
-                      against `sRefOriginal`, which might otherwise be lost.  See for instance,
-                      `wayic.Web.imager.WaybreccianFileTranslator.hRefLocal` and `hRefRemote`. */
-                    if( test == null ) continue; } /* Let the user correct the source first,
-                      as this would likely reduce noise on the console. */
-                hRef = hRef( sourceFile, eRef, sRef, isAlteredRef );
-                if( hRef == null ) continue; } // For then `sRef` is not to be hyperlinked.
-            final Element a = d.createElementNS( nsHTML, "html:a" );
-            eRef.insertBefore( a, tRef );
-            a.setAttribute( "href", hRef ); // [◦↓◦]
-            a.appendChild( tRef ); }
-
-
-      // ════════════
-      // Afterlinkers: pattern matching and object hyperlinking  [◦↑◦]
-      // ════════════
-        linker: for( Element cR = successorElement(fileFractum);  cR != null;  cR = successorElement(cR) ) {
-            if( !hasName( "ReferentialCommand", cR )) continue;
-            final Element linker/*afterlinker*/ = ownerFractum( cR );
-            assert hasName( "Afterlinker", linker ); /* Hyperlinking a formal reference
-              other than a linker’s?  Then sync with `formalReferenceAt` above. */
-
-          // Subject
-          // ────────
-            Node n;
-            final Matcher mSubject;  /* The pattern matcher of the subject clause successfully matched
-              to the subject, or null if there is no subject clause. */
-            if( (n = previousSibling( cR, "SubjectClause" )) != null ) {
-                final Node nPM = n/*SubjectClause*/.getLastChild(); {
-                    assert hasName( "PatternMatcher", nPM ); }
-
-                // Changing what follows?  Sync with code marked ‘PHM’ elsewhere.
-                final Element eP = (Element) nPM.getFirstChild()/*delimiter*/.getNextSibling(); {
-                    assert hasName( "Pattern", eP ); }
-                final Pattern jP; { // Java compilation of `eP` and its associated match modifiers.
-                    n = nPM.getLastChild();
+      // Object clause
+      // ───────────────
+        final Node loF; // Fractum locant, or null if an object clause is absent.
+        Node loFcPM1; { /* First pattern matcher in the `loF` matcher series, or referential command
+              `cR` if an object clause is absent or comprises a fractal context locant. */
+            final Node cObject = nextSibling( cR, "ObjectClause" );
+            if( cObject == null ) {
+                loF = null;
+                loFcPM1 = cR; }
+            else {
+                n = cObject.getFirstChild();
+                if( hasName( "FractalContextLocant", n )) {
+                    loF = n.getLastChild();
+                    loFcPM1 = cR; }
+                else {
+                    loF = n;
+                    loFcPM1 = loF.getFirstChild();
+                    if( !hasName( "PatternMatcher", loFcPM1 )) return; } /* No patterns
+                      to hyperlink, for this object clause comprises a file locant alone. */
+                assert hasName( "FractumLocant", loF ); }}
+
+      // Referent file
+      // ─────────────
+        final ImageFile iRef; // Record of the referent file.
+        final int rSelf; /* Index in `iRef.fracta` of `linker`, as per `fSelfIgnore`
+          of `seek( m, fracta, fSelfIgnore, fIgnore )`. */
+        final int rParent; /* Index in `iRef.fracta` of `linker` parent, as per `fIgnore`
+          of `seek( m, fracta, fSelfIgnore, fIgnore )`. */
+        final String hRef_filePart; // The pre-fragment part of each hyperlink’s `href` attribute.
+        Node loFc; // Initialized herein to the last child of `loF` before any file locant,
+        iRef: {  // or to null if an object clause is absent.
+            if( loF == null ) loFc = null;
+            else if( hasName( "FileLocant", loFc = loF.getLastChild() )) {
+                if( ((Element)loFc).getAttribute("qualifiers").contains( "non-fractal" )) {
+                    return; } // No patterns of *fracta* to hyperlink.
+                n = loFc.getLastChild();
+                assert hasName( "Reference", n );
+                n = n.getFirstChild();
+                if( !hasName( "a", n )) return; /* No hyperlink having been formed
+                  for the referent file, none will be formed for its fracta. */
+                final String hRef = ((Element)n).getAttribute( "href" ); // [◦↑◦]
+                final URI uRef; {
+                    try { uRef = new URI( hRef ); }
+                    catch( URISyntaxException x ) { throw new Unhandled( x ); }}
+                      // Unexpected because this is effectively a reconstruction.
+                if( !looksImageLike( uRef )) return; /* The hyperlink for the referent file
+                  does not target its Web image, which means that the referent file is either
+                  non-Breccian or had no corresponding image file earlier when one was sought.
+                  Without an image file, there can be no `iRef` against which to resolve the
+                  patterns of `loF`, nor any way to form hyperlinks to the matching fracta. */
+                if( isRemote( uRef )) {
+                    return; // No HTTP access, no `iRef`. [NH]
+                 /* hRef_filePart = unfragmented( uRef ).toASCIIString(); /* To be correct,
+                      though no fragment is expected on Breccian referent `uRef`. */ }
+                else {
+                    final Path referentPath = // Absolute path of the referent image file,
+                      sourceFile.resolveSibling( toPath( uRef, sourceFile )); /*
+                        No `IllegalArgumentException` expected, ∵ a reference so malformed
+                        would not have been hyperlinked. [◦↑◦] */
+                    iRef = recorded( referentPath.normalize() );
+                    if( iRef == null ) return;
+                    rSelf = rParent = -2;
+                    hRef_filePart = hRef; } // Already without a fragment, given `toPath` above.
+                loFc = loFc.getPreviousSibling();
+                break iRef; }
+            // The referent file is the containing file, the present image file.
+            iRef = recorded( imageSibling(sourceFile).normalize() );
+            assert iRef != null; // It was formed earlier, during the `translate` cycle.
+            final var rr = iRef.fracta();
+            rSelf   = seek( offsets.xunc( linker                  ), rr );
+            rParent = seek( offsets.xunc( parentAsElement(linker) ), rr );
+            hRef_filePart = ""; }
+
+      // Referent patterns taken from right to left in the pattern-matcher series, if any
+      // ─────────────────
+        int region = 0, regionEnd = iRef.sourceText().length(); // Search region in referent source.
+        objectClausePatternCompiler.mSubject = mSubject;
+        for( ;; ) {
+            final int rSelfIgnore, rParentIgnore;
+            final Element eP; /* Image of a Breccian regular-expression pattern from a pattern
+              matcher of the object clause, or of `cR` in the case of an inferred pattern. */
+            final Pattern jP; { // Java compilation of the pattern and its match modifiers.
+                if( loFc != null ) {
+                    if( !hasName( "PatternMatcher", loFc )) {
+                        loFc = loFc.getPreviousSibling(); // Leftward through `loF` children.
+                        continue; }
+                    if( loFc == loFcPM1 ) {
+                        rSelfIgnore = rSelf;
+                        rParentIgnore = rParent; } // [ILP]
+                    else rSelfIgnore = rParentIgnore = -2;
+                    eP = (Element)loFc.getFirstChild().getNextSibling(); /* Image of a Breccian
+                      regular-expression pattern from a pattern matcher of the object clause. */
+                    assert hasName( "Pattern", eP );
+                    n = loFc.getLastChild();
                     final String mm = hasName("MatchModifiers",n) ? textChildFlat(n) : "";
-                    try { jP = parentalHeadPatternCompiler.compile( eP, mm, sourceFile ); }
+                    try { jP = objectClausePatternCompiler.compile( eP, mm, sourceFile ); }
                     catch( final PatternSyntaxException x ) {
                         warn( sourceFile, eP, x );
-                        continue linker; }
+                        return; }
                     catch( final FailedInterpolation x ) {
                         warn( sourceFile, x );
-                        continue linker; }}
-                n = head( linker.getParentNode() ); // Wherein lies the subject.
-                if( n == null ) {
-                    final CharacterPointer p = characterPointer( parentElement(nPM)/*SubjectClause*/ );
-                    mould.warn( sourceFile, p, "Misplaced back reference, no parent head to refer to\n"
-                      + p.markedLine() );
-                    continue linker; }
-                final String tH = sourceText( n ); // Text of the head.
-                int c = 0;
-                while( tH.charAt(c) == ' ' ) ++c; /* Past any perfect indent
-                  to the first non-plain-space character of the head. */
-                final Matcher m = mSubject = jP.matcher( tH ).region( c, tH.length() );
-                if( !m.find() ) {
-                    final CharacterPointer p = characterPointer( eP );
-                    warn( sourceFile, p, "Broken back reference, no such text in parent head\n"
-                      + p.markedLine(), jP );
-                    continue linker; }
-                if( m.group().isEmpty() ) { // Disallowed. [PHM]
-                    final CharacterPointer p = characterPointer( eP );
-                    warn( sourceFile, p, "Incomplete back reference, matches an empty text sequence\n"
-                      + p.markedLine(), jP );
-                    continue linker; }
-                final int gN = m.groupCount();
-                for( int g = 1; g <= gN; ++g ) {
-                    final String capture = m.group( g );
-                    if( capture == null || capture.isEmpty() ) { /* Disallowed by language [PHM]
-                          and `ObjectClausePatternCompiler.mSubject` API. */
+                        return; }
+                    loFc = loFc.getPreviousSibling(); } /* Leftward through `loF` children,
+                      ready for the next pass of the loop. */
+                else if( loFcPM1 == cR ) { /* Then the leftmost pattern must be inferred, ∵ either
+                      the object clause is absent or comprises a fractal context locant. */
+                    rSelfIgnore = rSelf;
+                    rParentIgnore = rParent; // [ILP]
+                    eP = cR;
+                    try { jP = objectClausePatternCompiler.compileDefaultPattern( cR ); }
+                    catch( final FailedInterpolation x ) {
+                        warn( sourceFile, x );
+                        return; }
+                    loFcPM1 = null; } // Making this the final pass of the loop.
+                else break; }
+            final RequiredLiteral jL = objectClausePatternCompiler.requiredLiteral; // Of `jP`.
+            final LinearPattern jLinear = objectClausePatternCompiler.linearPattern; // Of `jP`.
+            final String hRef; { // Hyperlink `href` attribute referring to matched fractum.
+                final ImagedBodyFractum[] referentFracta = iRef.fracta();
+                final int r; { // Index in `referentFracta` of the matched body fractum, or -1.
+                    final CharSequence tRef = iRef.sourceText();
+                    final RegionMatcher m = RegionMatcher.of( jP, jLinear, timeLimited( tRef ))
+                      .region( region, regionEnd );
+                    try {
+                        r = prefilter( m, tRef, jL, referentFracta ) ?
+                          seek( m, referentFracta, rSelfIgnore, rParentIgnore ) : -2; }
+                    catch( final OvertimeMatch x ) {
+                        warn( sourceFile, eP, jP, x );
+                        return; }
+                    if( r == -2 ) {
                         final CharacterPointer p = characterPointer( eP );
-                        warn( sourceFile, p, "Incomplete back reference, group " + g
-                          + " captures nothing in the parent head\n" + p.markedLine(), jP );
-                        continue linker; }}}
-            else mSubject = null;
-
-          // Object clause
-          // ───────────────
-            final Node loF; // Fractum locant, or null if an object clause is absent.
-            Node loFcPM1; { /* First pattern matcher in the `loF` matcher series, or referential command
-                  `cR` if an object clause is absent or comprises a fractal context locant. */
-                final Node cObject = nextSibling( cR, "ObjectClause" );
-                if( cObject == null ) {
-                    loF = null;
-                    loFcPM1 = cR; }
-                else {
-                    n = cObject.getFirstChild();
-                    if( hasName( "FractalContextLocant", n )) {
-                        loF = n.getLastChild();
-                        loFcPM1 = cR; }
-                    else {
-                        loF = n;
-                        loFcPM1 = loF.getFirstChild();
-                        if( !hasName( "PatternMatcher", loFcPM1 )) continue linker; } /* No patterns
-                          to hyperlink, for this object clause comprises a file locant alone. */
-                    assert hasName( "FractumLocant", loF ); }}
-
-          // Referent file
-          // ─────────────
-            final ImageFile iRef; // Record of the referent file.
-            final int rSelf; /* Index in `iRef.fracta` of `linker`, as per `fSelfIgnore`
-              of `seek( m, fracta, fSelfIgnore, fIgnore )`. */
-            final int rParent; /* Index in `iRef.fracta` of `linker` parent, as per `fIgnore`
-              of `seek( m, fracta, fSelfIgnore, fIgnore )`. */
-            final String hRef_filePart; // The pre-fragment part of each hyperlink’s `href` attribute.
-            Node loFc; // Initialized herein to the last child of `loF` before any file locant,
-            iRef: {  // or to null if an object clause is absent.
-                if( loF == null ) loFc = null;
-                else if( hasName( "FileLocant", loFc = loF.getLastChild() )) {
-                    if( ((Element)loFc).getAttribute("qualifiers").contains( "non-fractal" )) {
-                        continue linker; } // No patterns of *fracta* to hyperlink.
-                    n = loFc.getLastChild();
-                    assert hasName( "Reference", n );
-                    n = n.getFirstChild();
-                    if( !hasName( "a", n )) continue linker; /* No hyperlink having been formed
-                      for the referent file, none will be formed for its fracta. */
-                    final String hRef = ((Element)n).getAttribute( "href" ); // [◦↑◦]
-                    final URI uRef; {
-                        try { uRef = new URI( hRef ); }
-                        catch( URISyntaxException x ) { throw new Unhandled( x ); }}
-                          // Unexpected because this is effectively a reconstruction.
-                    if( !looksImageLike( uRef )) continue linker; /* The hyperlink for the referent file
-                      does not target its Web image, which means that the referent file is either
-                      non-Breccian or had no corresponding image file earlier when one was sought.
-                      Without an image file, there can be no `iRef` against which to resolve the
-                      patterns of `loF`, nor any way to form hyperlinks to the matching fracta. */
-                    if( isRemote( uRef )) {
-                        continue linker; // No HTTP access, no `iRef`. [NH]
-                     /* hRef_filePart = unfragmented( uRef ).toASCIIString(); /* To be correct,
-                          though no fragment is expected on Breccian referent `uRef`. */ }
-                    else {
-                        final Path referentPath = // Absolute path of the referent image file,
-                          sourceFile.resolveSibling( toPath( uRef, sourceFile )); /*
-                            No `IllegalArgumentException` expected, ∵ a reference so malformed
-                            would not have been hyperlinked. [◦↑◦] */
-                        iRef = recorded( referentPath.normalize() );
-                        if( iRef == null ) continue linker;
-                        rSelf = rParent = -2;
-                        hRef_filePart = hRef; } // Already without a fragment, given `toPath` above.
-                    loFc = loFc.getPreviousSibling();
-                    break iRef; }
-                // The referent file is the containing file, the present image file.
-                iRef = recorded( imageSibling(sourceFile).normalize() );
-                assert iRef != null; // It was formed earlier, during the `translate` cycle.
-                final var rr = iRef.fracta();
-                rSelf   = seek( parseUnsignedInt( linker                 .getAttribute( "xunc" )), rr );
-                rParent = seek( parseUnsignedInt( parentAsElement(linker).getAttribute( "xunc" )), rr );
-                hRef_filePart = ""; }
-
-          // Referent patterns taken from right to left in the pattern-matcher series, if any
-          // ─────────────────
-            int region = 0, regionEnd = iRef.sourceText().length(); // Search region in referent source.
-            objectClausePatternCompiler.mSubject = mSubject;
-            for( ;; ) {
-                final int rSelfIgnore, rParentIgnore;
-                final Element eP; /* Image of a Breccian regular-expression pattern from a pattern
-                  matcher of the object clause, or of `cR` in the case of an inferred pattern. */
-                final Pattern jP; { // Java compilation of the pattern and its match modifiers.
-                    if( loFc != null ) {
-                        if( !hasName( "PatternMatcher", loFc )) {
-                            loFc = loFc.getPreviousSibling(); // Leftward through `loF` children.
-                            continue; }
-                        if( loFc == loFcPM1 ) {
-                            rSelfIgnore = rSelf;
-                            rParentIgnore = rParent; } // [ILP]
-                        else rSelfIgnore = rParentIgnore = -2;
-                        eP = (Element)loFc.getFirstChild().getNextSibling(); /* Image of a Breccian
-                          regular-expression pattern from a pattern matcher of the object clause. */
-                        assert hasName( "Pattern", eP );
-                        n = loFc.getLastChild();
-                        final String mm = hasName("MatchModifiers",n) ? textChildFlat(n) : "";
-                        try { jP = objectClausePatternCompiler.compile( eP, mm, sourceFile ); }
-                        catch( final PatternSyntaxException x ) {
-                            warn( sourceFile, eP, x );
-                            continue linker; }
-                        catch( final FailedInterpolation x ) {
-                            warn( sourceFile, x );
-                            continue linker; }
-                        loFc = loFc.getPreviousSibling(); } /* Leftward through `loF` children,
-                          ready for the next pass of the loop. */
-                    else if( loFcPM1 == cR ) { /* Then the leftmost pattern must be inferred, ∵ either
-                          the object clause is absent or comprises a fractal context locant. */
-                        rSelfIgnore = rSelf;
-                        rParentIgnore = rParent; // [ILP]
-                        eP = cR;
-                        try { jP = objectClausePatternCompiler.compileDefaultPattern( cR ); }
-                        catch( final FailedInterpolation x ) {
-                            warn( sourceFile, x );
-                            continue linker; }
-                        loFcPM1 = null; } // Making this the final pass of the loop.
-                    else break; }
-                final String hRef; { // Hyperlink `href` attribute referring to matched fractum.
-                    final ImagedBodyFractum[] referentFracta = iRef.fracta();
-                    final int r; { // Index in `referentFracta` of the matched body fractum, or -1.
-                        final Matcher m = jP.matcher( iRef.sourceText() ).region( region, regionEnd );
-                        r = seek( m, referentFracta, rSelfIgnore, rParentIgnore );
-                        if( r == -2 ) {
-                            final CharacterPointer p = characterPointer( eP );
-                            warn( sourceFile, p, "No such fractal head\n" + p.markedLine(), jP );
-                            continue linker; }
-                        final int s = r + 1;
-                        if( s < referentFracta.length ) {
-                            if( advancePast( m, regionEnd )) { /* A further match may exist
-                                  that would locate an ambigous pattern.  Test for it: */
-                                final int r2 = seek( m, referentFracta, rSelfIgnore,
-                                  rParentIgnore, /* ignoring also */r/* as that would be
-                                    a ‘further match in the same head.’  [RFL] */ );
-                                if( r2 != -2 ) { // Then a further fractum is matched.
-                                    final CharacterPointer p = characterPointer( eP );
-                                    final int rLineNumber = r < 0 ? 1 : referentFracta[r].lineNumber();
-                                    warn( sourceFile, p, "Ambiguous pattern: fracta at lines "
-                                      + rLineNumber + " and " + referentFracta[r2].lineNumber()
-                                      + " both match\n" + p.markedLine(), jP ); // Disallowed. [RFL]
-                                    continue linker; }}
-                            else assert false; /* That `advancePast` cannot fail given the prior
-                              guard `s < referentFracta.length`. */
-                            region = referentFracta[s].xunc(); } /* Seek any next pattern in `r` body,
-                              which, if `r` has a body (see `regionEnd` below), begins with `s` head. */
-                        else region = regionEnd; } // No more fracta, no more search region.
-                    if( r < 0 ) { // Then the referent is the file fractum.
-                        assert r == -1;
-                        hRef = hRef_filePart.length() > 0 ? hRef_filePart // Either to that file,
-                          : '#' +  fileFractumIdentifier; } // or to the top of the present file.
-                    else { // The referent is a body fractum.
-                        final ImagedBodyFractum referent = referentFracta[r];
-                        hRef = hRef_filePart + '#' +  referent.identifier();
-                        regionEnd = referent.xuncEnd();
-                        assert region <= regionEnd; }} // Ready for the next `eP` in the series, if any.
-                final Element a = d.createElementNS( nsHTML, "html:a" );
-                a.setAttribute( "href", hRef );
-                while( (n = eP.getFirstChild()) != null ) a.appendChild( n ); // All `eP` children wrap-
-                eP.appendChild( a ); }}}                                     // ped to form a hyperlink.
+                        warn( sourceFile, p, "No such fractal head\n" + p.markedLine(), jP );
+                        return; }
+                    final int s = r + 1;
+                    if( s < referentFracta.length ) {
+                        if( advancePast( m, regionEnd )) { /* A further match may exist
+                              that would locate an ambigous pattern.  Test for it: */
+                            final int r2;
+                            try {
+                                r2 = prefilter( m, tRef, jL, referentFracta ) ?
+                                  seek( m, referentFracta, rSelfIgnore, rParentIgnore,
+                                    /* ignoring also */r/* as that would be a ‘further match
+                                      in the same head.’  [RFL] */ ) : -2; }
+                            catch( final OvertimeMatch x ) {
+                                warn( sourceFile, eP, jP, x );
+                                return; }
+                            if( r2 != -2 ) { // Then a further fractum is matched.
+                                final CharacterPointer p = characterPointer( eP );
+                                final int rLineNumber = r < 0 ? 1 : referentFracta[r].lineNumber();
+                                warn( sourceFile, p, "Ambiguous pattern: fracta at lines "
+                                  + rLineNumber + " and " + referentFracta[r2].lineNumber()
+                                  + " both match\n" + p.markedLine(), jP ); // Disallowed. [RFL]
+                                return; }}
+                        else assert false; /* That `advancePast` cannot fail given the prior
+                          guard `s < referentFracta.length`. */
+                        region = referentFracta[s].xunc(); } /* Seek any next pattern in `r` body,
+                          which, if `r` has a body (see `regionEnd` below), begins with `s` head. */
+                    else region = regionEnd; } // No more fracta, no more search region.
+                if( r < 0 ) { // Then the referent is the file fractum.
+                    assert r == -1;
+                    hRef = hRef_filePart.length() > 0 ? hRef_filePart // Either to that file,
+                      : '#' +  fileFractumIdentifier; } // or to the top of the present file.
+                else { // The referent is a body fractum.
+                    final ImagedBodyFractum referent = referentFracta[r];
+                    hRef = hRef_filePart + '#' +  referent.identifier();
+                    regionEnd = referent.xuncEnd();
+                    assert region <= regionEnd; }} // Ready for the next `eP` in the series, if any.
+            final Element a = d.createElementNS( nsHTML, "html:a" );
+            a.setAttribute( "href", hRef );
+            while( (n = eP.getFirstChild()) != null ) a.appendChild( n ); // All `eP` children wrap-
+            eP.appendChild( a ); }}                                      // ped to form a hyperlink.
+
+
+
+    /** Finishes the note carrier of the given preposition, matching the pattern of its purview clause
+      * against the parent head.  [F]
+      *
+      *     @param sourceFile The absolute path of the source file.
+      *     @param pr The image of the preposition of the purview clause.
+      */
+    private void finish_noteCarrier( final Path sourceFile, final Element pr ) {
+        final Element nC/*note carrier*/ = ownerFractum( pr );
+        assert hasName( "NoteCarrier", nC );
+        final Node nPM = nextSibling( pr, "PatternMatcher" );
+        Node n;
+
+        // Changing what follows?  Sync with code marked ‘PHM’ elsewhere.
+        final Element eP = (Element) nPM.getFirstChild()/*delimiter*/.getNextSibling(); {
+            assert hasName( "Pattern", eP ); }
+        final Pattern jP; { // Java compilation of `eP` and its associated match modifiers.
+            n = nPM.getLastChild();
+            final String mm = hasName("MatchModifiers",n) ? textChildFlat(n) : "";
+            try { jP = parentalHeadPatternCompiler.compile( eP, mm, sourceFile ); }
+            catch( final PatternSyntaxException x ) {
+                warn( sourceFile, eP, x );
+                return; }
+            catch( final FailedInterpolation x ) {
+                warn( sourceFile, x );
+                return; }}
+        n = head( nC.getParentNode() ); // Wherein lies the text to which the note pertains.
+        if( n == null ) {
+            final CharacterPointer p = characterPointer( pr/*start of purview clause*/ );
+            mould.warn( sourceFile, p, "Misplaced back reference, no parent head to refer to\n"
+              + p.markedLine() );
+            return; }
+        final String tH = headText( (Element)n ); // Text of the head.
+        int c = 0;
+        while( tH.charAt(c) == ' ' ) ++c; /* Past any perfect indent
+          to the first non-plain-space character of the head. */
+        final Matcher m = jP.matcher( timeLimited(tH) ).region( c, tH.length() );
+        final boolean isFound;
+        try { isFound = m.find(); }
+        catch( final OvertimeMatch x ) {
+            warn( sourceFile, eP, jP, x );
+            return; }
+        if( !isFound ) {
+            final CharacterPointer p = characterPointer( eP );
+            warn( sourceFile, p, "Broken back reference, no such text in parent head\n"
+              + p.markedLine(), jP );
+            return; }
+        if( m.group().isEmpty() ) { // Disallowed. [PHM]
+            final CharacterPointer p = characterPointer( eP );
+            warn( sourceFile, p, "Incomplete back reference, matches an empty text sequence\n"
+              + p.markedLine(), jP );
+            return; }
+        final int gN = m.groupCount();
+        for( int g = 1; g <= gN; ++g ) {
+            final String capture = m.group( g );
+            if( capture == null || capture.isEmpty() ) { // Disallowed. [PHM]
+                final CharacterPointer p = characterPointer( eP );
+                warn( sourceFile, p, "Incomplete back reference, group " + g
+                  + " captures nothing in the parent head\n" + p.markedLine(), jP );
+                return; }}}
+
+
+
+    /** Finishes the given URI reference, forming it as a hyperlink.  [F, HF]
+      *
+      *     @param sourceFile The absolute path of the source file.
+      *     @param eRef The image of the reference.
+      */
+    private void finish_reference( final Path sourceFile, final Element eRef ) {
+        final Document d = eRef.getOwnerDocument();
+        final Text tRef = (Text)eRef.getFirstChild(); // The reference encapsulated as `Text`.
+        final String hRef; { /*
+            For what follows, cf. `ImageMould.formalResources_recordFrom`. */
+            final String sRefOriginal = tRef.getData(); // The reference in string form.
+            final String sRef = mould.translate( sRefOriginal, sourceFile );
+              // Applying any `-reference-mapping` translations.
+            final boolean isAlteredRef = !sRef.equals( sRefOriginal );
+            if( isAlteredRef ) {
+                final String test = hRef( sourceFile, eRef, sRefOriginal, /*isAlteredRef*/false ); /*
+                  Always testing `sRefOriginal`, so verifying that it would have been hyperlinked,
+                  else warning the user.  For there are types of warning that are issued only
+                  against `sRefOriginal`, which might otherwise be lost.  See for instance,
+                  `wayic.Web.imager.WaybreccianFileTranslator.hRefLocal` and `hRefRemote`. */
+                if( test == null ) return; } /* Let the user correct the source first,
+                  as this would likely reduce noise on the console. */
+            hRef = hRef( sourceFile, eRef, sRef, isAlteredRef );
+            if( hRef == null ) return; } // For then `sRef` is not to be hyperlinked.
+        final Element a = d.createElementNS( nsHTML, "html:a" );
+        eRef.insertBefore( a, tRef );
+        a.setAttribute( "href", hRef ); // [◦↓◦]
+        a.appendChild( tRef ); }
 
 
 
@@ -775,7 +928,30 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    private Font glyphTestFont;
+    private final GraphemeClusterCounter gcc = new GraphemeClusterCounter(); /* Apart from that
+      of the mould, because this translator may run in a thread of its own. */
+
+
+
+    /** Returns the original text of the given fractal head, as per `sourceText`, memoized
+      * for the present document.  Heads are read repeatedly in translating and finishing an image,
+      * as for identifiers, character pointers and back references, while their original text
+      * never changes.  [HT] *//*
+      *
+      *     @paramImplied #stringBuilder3
+      */
+    private String headText( final Element head ) {
+        String t = headTexts.get( head );
+        if( t == null ) {
+            t = appendSourceText( head, clear(stringBuilder3) ).toString();
+            headTexts.put( head, t ); }
+        return t; }
+
+
+
+    /** Memo of `headText`, cleared after each document.  [HT, RD]
+      */
+    private final IdentityHashMap<Element,String> headTexts = new IdentityHashMap<>();
 
 
 
@@ -798,8 +974,8 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
             catch( final URISyntaxException x ) {
                 final int c = isAlteredRef ? 0/*guaranteed within bounds of the unaltered `eRef`*/
                   : zeroBased( x.getIndex() );
-                final CharacterPointer p = characterPointer( eRef, c );
-                mould.warnOnce( f, p, mould.message( sRef, x, p, isAlteredRef ));
+                mould.warnOnce( f, deferredPointer( eRef, c ), messageKey( sRef, x ),
+                  p -> mould.message( sRef, x, p, isAlteredRef ));
                 return null; }} // Without a hyperlink ∵ `x` leaves the intended object unclear.
 
       // remote  [RC]
@@ -816,25 +992,27 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
         final Path pRefAbsolute; { // `pRef` resolved against the parent directory of `f`.
             try { pRef = mould.toPath( uRef, f ); }
             catch( final IllegalArgumentException x ) {
-                final CharacterPointer p = characterPointer( eRef );
-                mould.warnOnce( f, p, x.getMessage() + '\n' + mould.markedLine( sRef, p, isAlteredRef ));
+                mould.warnOnce( f, deferredPointer( eRef, 0 ), x.getMessage() + ": " + sRef,
+                  p -> x.getMessage() + '\n' + mould.markedLine( sRef, p, isAlteredRef ));
                 return null; } // Without a hyperlink ∵ `x` leaves the intended referent unclear.
             pRefAbsolute = f.resolveSibling( pRef ); }
         if( !exists( pRefAbsolute )) {
             final StringBuilder bMessage = clear( stringBuilder );
             final boolean isTransX = mould.isTransX( pRefAbsolute, bMessage );
             final boolean wouldPrivatizationSuppress = isAlteredRef && isTransX;
-            final CharacterPointer p = characterPointer( eRef );
-            final String markedLine = mould.markedLine( sRef, p, isAlteredRef );
             if( wouldPrivatizationSuppress && isPrivatized(ownerFractum(eRef)) ) {
-                logger.fine( () -> wrnHead(f,p.lineNumber) + bMessage
-                  + ": Omitting a hyperlink for this private reference:\n" + markedLine );
+                logger.fine( () -> { // Forming the pointer only if the message is to be logged.
+                    final CharacterPointer p = characterPointer( eRef );
+                    return wrnHead(f,p.lineNumber) + bMessage
+                      + ": Omitting a hyperlink for this private reference:\n"
+                      + mould.markedLine( sRef, p, isAlteredRef ); });
                 return null; } /* With neither hyperlink nor warning, because this type
                   of inaccessibility is common when a private reference is altered
                   by a `-reference-mapping` translation. */
+            final CharacterPointer p = characterPointer( eRef );
             if( wouldPrivatizationSuppress ) {
                 bMessage.append( "; consider marking this reference as private" ); }
-            bMessage.append( ":\n" ).append( markedLine );
+            bMessage.append( ":\n" ).append( mould.markedLine( sRef, p, isAlteredRef ));
             mould.warnOnce( f, p, bMessage.toString() ); } /* Yet carry on and form the hyperlink,
               for the cause of inaccessibility could be a misplacement or misconfiguration
               of the referent as opposed to a malformation of the reference. */
@@ -869,11 +1047,9 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
             if( looksBrecciaLike( pRef )) {
                 final boolean imageExists; { /* Whether this referent (a Breccian source file
                       it appears) has an image file either (a) pre-existing or (b) newly formed. */
-                    final Path pRefImageSib = imageSibling( pRefAbsolute );
-                    imageExists = /*(a)*/isRegularFile( pRefImageSib )
-                      || /*(b)*/pRefAbsolute.startsWith( mould.boundaryPathDirectory )
-                           && isRegularFile( mould.outputDirectory.resolve(
-                                mould.boundaryPathDirectory.relativize( pRefImageSib ))); }
+                    imageExists = /*(a)*/isRegularFile( imageSibling( pRefAbsolute ))
+                      || /*(b)*/isImaged( pRefAbsolute.normalize() ); } /* Not by the presence of its
+                          image file in the output directory, which might yet be held in memory. [DH] */
                 if( imageExists ) p = imageSibling( p ); }
             else if( !isAlteredRef/*[LC]*/  &&  looksImageLike(pRef)  &&  !isNonFractal(eRef) ) {
                 warn_imageFileReference( f, eRef, sRef, isAlteredRef ); }} /* Yet carry on and form
@@ -935,15 +1111,15 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    private final Map<String,Integer> idMap;
-      // Base identifiers of fracta for the image file of the present `translate` call (keys)
-      // mapped each to its occurence count (value).  Base identifiers omit any ordinal suffix.
+    private final IdentifierCounts idCounts;
+      // Base identifiers of fracta for the image file of the present `translate` call
+      // each with its occurence count.  Base identifiers omit any ordinal suffix.
 
 
 
     private final ArrayList<ImagedBodyFractum> imagedBodyFracta; { // For use by `translate`, or
         final int c = 0x2000; // = 8192                               elsewhere as `paramImplied`.
-        idMap = new HashMap<>( initialCapacity( c ));
+        idCounts = new IdentifierCounts( c );
         imagedBodyFracta = new ArrayList<>( c ); }
 
 
@@ -955,16 +1131,27 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
     /** Whether codepoint `ch`, if it occured in the free-form part of a bullet,
       * would there be styled in bold face.
       */
-    private boolean isBoldable( final int ch ) {
+    private static boolean isBoldable( final int ch ) {
         final String gC = generalCategory( ch );
         return gC.startsWith("L"/*Letter*/) || gC.startsWith("N"/*Number*/); }
 
 
 
+    /** Whether the given source file is now determined to be imaged, its image file newly formed
+      * in the present imaging command.
+      *
+      *     @param sourceFile The absolute, normalized path of a source file.
+      */
+    private boolean isImaged( final Path sourceFile ) {
+        final ImageabilityReference iR = mould.imageabilityDeterminations.get( sourceFile );
+        return iR != null && iR.get() == Imageability.imaged; }
+
+
+
     /** Whether codepoint `ch`, if it occured in the free-form part of a bullet,
       * would there be styled as a minor character.
       */
-    private boolean isMinor( final int ch ) {
+    private static boolean isMinor( final int ch ) {
         return generalCategory(ch).startsWith( "P"/*Punctuation*/ ); }
 
 
@@ -1004,31 +1191,50 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    /** @param token A word or other sequence of characters extracted from a fractal head.
-      * @return The token transformed as necessary to serve as a keyword in a fractum `id` attribute. *//*
-      * @paramImplied #stringBuilder
+    /** Whether `ch` may appear unmasked in a keyword of a fractum `id` attribute.
+      *
+      *     @see #appendKeyword(String,int,int,int,StringBuilder)
+      */
+    private static boolean isKeywordCharacter( final char ch ) {
+        return 'a' <= ch && ch <= 'z'  ||  'A' <= ch && ch <= 'Z'  ||  '0' <= ch && ch <= '9'; }
+
+
+
+    /** Whether `ch` is a whitespace character of Breccia that delimits the tokens from which
+      * the keywords of a fractum `id` attribute are formed.
+      */
+    private static boolean isTokenDelimiter( final char ch ) {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\u00A0'; }
+
+
+
+    /** Returns the length of the keyword that `appendKeyword` would form from the same token,
+      * without forming it.
+      *
+      *     @see #appendKeyword(String,int,int,int,StringBuilder)
       */
-    private String keyword( final String token ) {
-        final StringBuilder b = clear( stringBuilder );
+    private static int keywordLength( final String text, final int start, final int end ) {
+        int length = 0;
         boolean wasLastMasked = false;
-        int c = 0;
-        for( final int cN = token.length(); c < cN; ++c ) {
-            final char ch = token.charAt( c );
-            if( 'a' <= ch && ch <= 'z'  ||  'A' <= ch && ch <= 'Z'  ||  '0' <= ch && ch <= '9' ) {
-                b.append( ch );
+        for( int c = start; c < end; ++c ) {
+            if( isKeywordCharacter( text.charAt( c ))) {
+                ++length;
                 wasLastMasked = false; }
-            else if( wasLastMasked ) continue; // Omit, so collapsing to a single mask character.
-            else {
-                b.append( '-' ); // Masking it for sake of pretty URLs, uncomplicated by encoding.
+            else if( !wasLastMasked ) {
+                ++length;
                 wasLastMasked = true; }}
-        c = 0; // Trim any mask characters at the leading or trailing edges. [MT]
-        if( b.length() > 1  &&  b.charAt(c) == '-' ) b.deleteCharAt( c );
-        c = b.length() - 1;
-        if( b.length() > 1  &&  b.charAt(c) == '-' ) b.deleteCharAt( c );
-        final char ch = b.charAt( 0 );
-        if( 'A' <= ch && ch <= 'Z' ) b.setCharAt( 0, toLowerCase(ch) ); /* Lower-casing the first letter
-          for sake of ID stability, as the keyword might lead a sentence now, then move under editing. */
-        return b.toString(); }
+        if( length > 1  &&  !isKeywordCharacter(text.charAt(start)) ) --length; // As trimmed. [MT]
+        if( length > 1  &&  wasLastMasked ) --length;
+        return length; }
+
+
+
+    /** The keywords gathered by `translate` for the `id` attribute of a fractum, each as a span
+      * of the head text in three elements: its start offset, end offset and keyword length.
+      *
+      *     @see #keywordLength(String,int,int)
+      */
+    private final int[] keywordSpans = new int[3 * /*maximum keyword count*/3];
 
 
 
@@ -1040,7 +1246,7 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    private static ImageFile newImageFile( final Path imageFile, final Element fileFractum,
+    private ImageFile newImageFile( final Path imageFile, final Element fileFractum,
           final ImagedBodyFractum[] fracta ) {
         final String text = sourceText( fileFractum );
         assert text.length() == xuncEnd( fileFractum, fracta );
@@ -1048,6 +1254,12 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
+    /** Side index of the offsets of the present document, cleared after each.  [RD]
+      */
+    private final OffsetIndex offsets = new OffsetIndex();
+
+
+
     private final ImagingOptions opt;
 
 
@@ -1060,31 +1272,117 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    /** Returns a record of the given image file, or null if none could be formed.
-      * Caches return values in `imageFilesLocal`.
+    /** Prefilters the search of `m` by the literal factor required of its matches.  Where the pattern
+      * asserts nothing of the text that precedes a match, this advances the search region of `m`
+      * to the head of the fractum in which the factor first occurs, as no earlier head could contain
+      * a match confined to itself.  [RFL]
+      *
+      *     @param text The text that `m` searches.
+      *     @param l The literal factor required of every match of `m`, or null if none is known.
+      *     @param fracta A linear-order array of the imaged body fracta of `text`.
+      *     @return False if surely `m` can find no match in its search region, true otherwise.
+      */
+    private static boolean prefilter( final RegionMatcher m, final CharSequence text,
+          final RequiredLiteral l, final ImagedBodyFractum[] fracta ) {
+        if( l == null ) return true;
+        final int rStart = m.regionStart(), rEnd = m.regionEnd();
+        final int c = l.indexIn( text, rStart, rEnd ); // First occurrence of the factor.
+        if( c < 0 ) return false;
+        if( l.isContextFree ) {
+            final int f = seek( c, fracta );
+            final int hStart = f < 0 ? 0 : fracta[f].xunc(); // Start of the candidate head.
+            if( hStart > rStart ) m.region( hStart, rEnd ); }
+        return true; }
+
+
+
+    /** Forms a record of the given image file, reading it from the fracta index of the file
+      * if that is valid, otherwise from the image file itself by way of a streaming parse.
       *
       *     @param imageFile The absolute, normalized path of an existing image file.
-      *     @see ImageMould#imageFilesLocal *//*
+      *     @see #recorded(Path) *//*
       *
       *     @paramImplied #imagedBodyFracta
       */
+    private ImageFile readRecord( final Path imageFile ) {
+        assert exists( imageFile );
+        final ImageFile rec = FractaIndex.read( imageFile );
+        if( rec != null ) return rec;
+        final StringBuilder text = new StringBuilder( /*initial capacity*/0x2000 ); // = 8192
+        imagedBodyFracta.clear();
+        try( final Reader fileReader = newBufferedReader​( imageFile )) {
+            final XMLStreamReader r = xmlInputFactory.createXMLStreamReader( fileReader );
+            try { readRecord( r, text ); }
+            finally { r.close(); }}
+        catch( IOException|XMLStreamException x ) {
+            throw new Unhandled( new ErrorAtFile( imageFile, "Unable to read image file", x )); }
+        return new ImageFile( text.toString(), imagedBodyFracta.toArray(imagedBodyFractaType) ); }
+
+
+
+    /** Reads from an image file, without forming a DOM, the original source text of its file fractum
+      * and the records of its body fracta.  The results are those of `sourceText(fileFractum)`
+      * and `successorFractum`, `xuncEnd(Element)` as applied to the DOM of the image.
+      *
+      *     @param r A reader positioned at the start of the image document.
+      *     @param text Where to append the original source text.
+      *     @see ImageNodes#sourceText(Node)
+      *     @see #xuncEnd(Element) *//*
+      *
+      *     @paramImplied #imagedBodyFracta Where to add the records of the body fracta.
+      */
+    private void readRecord( final XMLStreamReader r, final StringBuilder text )
+          throws XMLStreamException {
+        final ArrayList<ImagedBodyFractum> fracta = imagedBodyFracta;
+        final ArrayDeque<int[]> open = new ArrayDeque<>(); /* The body fracta presently open,
+          each as its element depth and index in `fracta`. */
+        final ArrayList<Integer> closed = new ArrayList<>(); /* Indices in `fracta` of the body
+          fracta closed since the last fractum opened, whose `xuncEnd` is the `xunc` of the next. */
+        int depth = 0; // Of the present element.
+        int depthFile = 0; // Of the file fractum, or zero if it is yet to be encountered.
+        int depthSkip = 0; // Of the non-original text being skipped, or zero if none is.
+        read: while( r.hasNext() ) switch( r.next() ) {
+            case START_ELEMENT -> {
+                ++depth;
+                if( depthSkip == 0 && r.getAttributeValue(nsImager,"nonOriginalText") != null ) {
+                    depthSkip = depth; }
+                if( r.getAttributeValue( null, "typestamp" ) == null ) continue read; // Not a fractum.
+                if( depthFile == 0 ) { // This is the file fractum.
+                    depthFile = depth;
+                    continue read; }
+                final int xunc = parseUnsignedInt( r.getAttributeValue( null, "xunc" ));
+                for( final int f: closed ) fracta.set( f, withEnd( fracta.get(f), xunc ));
+                closed.clear();
+                final String id = r.getAttributeValue( null, "id" );
+                fracta.add( new ImagedBodyFractum( xunc,
+                  parseUnsignedInt( r.getAttributeValue( null, "lineNumber" )),
+                  id == null ? "" : id, /*xuncEnd, yet unknown*/-1 ));
+                open.push( new int[] { depth, fracta.size() - 1 }); }
+            case END_ELEMENT -> {
+                if( !open.isEmpty() && open.peek()[0] == depth ) closed.add( open.pop()[1] );
+                if( depthSkip == depth ) depthSkip = 0;
+                if( depthFile == depth ) break read; // The file fractum is read.
+                --depth; }
+            case CHARACTERS, CDATA, SPACE -> {
+                if( depthFile != 0 && depthSkip == 0 ) {
+                    text.append( r.getTextCharacters(), r.getTextStart(), r.getTextLength() ); }}
+            default -> {}}
+        final int textEnd = text.length(); // The end boundary of every fractum yet unbounded.
+        for( final int f: closed ) fracta.set( f, withEnd( fracta.get(f), textEnd ));
+        for( final int[] o: open ) fracta.set( o[1], withEnd( fracta.get(o[1]), textEnd )); }
+
+
+
+    /** Returns a record of the given image file, or null if none could be formed.
+      * Caches return values in `imageFilesLocal`, which it shares with translators running
+      * in other threads, such that each image file is read at most once.
+      *
+      *     @param imageFile The absolute, normalized path of an existing image file.
+      *     @see ImageMould#imageFilesLocal_get(Path,java.util.function.Function)
+      */
     private ImageFile recorded( final Path imageFile ) {
         assert imageFile.isAbsolute();
-        ImageFile rec = mould.imageFilesLocal.get( imageFile );
-        if( rec == null ) {
-            assert exists( imageFile );
-            final Element fileFractum; {
-                try { fileFractum = fileFractum( imageFile ); }
-                catch( ErrorAtFile x ) { throw new Unhandled( x ); }}
-            imagedBodyFracta.clear();
-            for( Element bF = successorFractum(fileFractum);  bF != null;  bF = successorFractum(bF) ) {
-                imagedBodyFracta.add( new ImagedBodyFractum(
-                  parseUnsignedInt( bF.getAttribute( "xunc" )),
-                  parseUnsignedInt( bF.getAttribute( "lineNumber" )),
-                  bF.getAttribute( "id" ), xuncEnd( bF ))); }
-            rec = newImageFile( imageFile, fileFractum, imagedBodyFracta.toArray(imagedBodyFractaType) );
-            mould.imageFilesLocal.put( imageFile, rec ); }
-        return rec; }
+        return mould.imageFilesLocal_get( imageFile, this::readRecord ); }
 
 
 
@@ -1112,8 +1410,8 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       *
       * The references under `fSelfIgnore` above are to the language definition, [RFL]
       */
-    private static int seek( final Matcher m, final ImagedBodyFractum[] fracta, final int fSelfIgnore,
-          final int... fIgnore ) {
+    private static int seek( final RegionMatcher m, final ImagedBodyFractum[] fracta,
+          final int fSelfIgnore, final int... fIgnore ) {
         seek: while( m.find() ) {
             final int f = seek( m.start(), fracta ); // Index in `fracta` of the matched fractum, or -1.
             if( f == fSelfIgnore ) { /* Then ignore this match.  ‘Fractum locants do not locate
@@ -1147,7 +1445,8 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    /** Seeks the fractum in whose head the given offset lies.
+    /** Seeks the fractum in whose head the given offset lies.  Its search is binary, for the offsets
+      * of the fracta of a linear-order array ascend with the array index.
       *
       *     @param xunc An offset in UTF-16 code units from the start of a source text.
       *     @param fracta A linear-order array of the source text’s imaged body fracta.
@@ -1155,9 +1454,12 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
       *       or -1 if instead the offset lies in the head of the file fractum.
       */
     private static int seek( final int xunc, final ImagedBodyFractum[] fracta ) {
-        for( int f = fracta.length - 1;; --f ) {
-            if( f < 0 ) return -1;
-            if( fracta[f].xunc() <= xunc ) return f; }}
+        int low = 0, high = fracta.length; // The bounds of the search, respectively inclusive and not.
+        while( low < high ) { // Seeking the first fractum whose offset exceeds `xunc`.
+            final int f = (low + high) >>> 1;
+            if( fracta[f].xunc() <= xunc ) low = f + 1;
+            else high = f; }
+        return low - 1; } // The last fractum whose offset does not exceed `xunc`, or -1 if none.
 
 
 
@@ -1212,7 +1514,18 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-    private final DOMResult toDOM = new DOMResult();
+    /** Returns `text` bounded for matching by the time limit of option `-pattern-time-limit`,
+      * or `text` itself if there is no limit.
+      *
+      *     @see ImagingOptions#patternTimeLimit()
+      */
+    private CharSequence timeLimited( final CharSequence text ) {
+        final int limit = opt.patternTimeLimit();
+        return limit == 0 ? text : new TimeLimitedText( text, limit * 1_000_000_000L ); }
+
+
+
+    private final DOMResult toDOM = new DOMResult(); // [DOM]
 
 
 
@@ -1221,16 +1534,14 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
     /** @param sourceFile The absolute path of a source file.
-      * @param d Its unfinished image. *//*
-        @paramImplied #stringBuilder
-      * @paramImplied #stringBuilder2
+      * @param d Its unfinished image.
       */
     protected void translate( final Path sourceFile, final Document d ) {
         final Element fileFractum = (Element) d.removeChild( d.getFirstChild() ); // To be reintroduced
         assert hasName( "FileFractum", fileFractum );                            // further below.
         if( d.hasChildNodes() ) throw new IllegalStateException();              // One alone was present.
-        idMap.clear();
-        idMap.put( fileFractumIdentifier, 1 );
+        idCounts.clear();
+        idCounts.increment( fileFractumIdentifier );
         fileFractum.setAttribute( "id", fileFractumIdentifier );
 
       // HTML form
@@ -1238,20 +1549,15 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
         final Element html = d.createElementNS( nsHTML, "html" );
         d.appendChild( html );
         html.setAttributeNS( nsXMLNS, "xmlns:img", nsImager );
-        html.setAttribute( "style", "--centre-column:" + Float.toString(opt.centreColumn()) + "ch" ); {
+        html.setAttribute( "style", "--centre-column:" + Float.toString(opt.centreColumn()) + "ch" );
+        final Element title; {
             Element e;
 
           // `head`
           // ┈┈┈┈┈┈
             final Element documentHead = d.createElementNS( nsHTML, "head" );
             html.appendChild( documentHead );
-            String fileTitle = null; // Unless one can be derived from the text:
-            for( e = successorElement(fileFractum);  e != null;  e = successorElement(e) ) {
-                if( !hasName( "Head", e )) continue;
-                if( (fileTitle = fileTitle(e)) != null ) break; }
-            documentHead.appendChild( e = d.createElementNS( nsHTML, "title" ));
-            e.appendChild( d.createTextNode( fileTitle == null ? "Untitled" : fileTitle )); /* A title
-              *is* mandatory.  https://html.spec.whatwg.org/multipage/semantics.html#the-head-element */
+            documentHead.appendChild( title = d.createElementNS( nsHTML, "title" )); // Text below.
             final String coSD = opt.coServiceDirectory();
             documentHead.appendChild( e = d.createElementNS( nsHTML, "link" ));
             e.setAttribute( "rel", "stylesheet" );
@@ -1275,219 +1581,281 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
             fileFractum.setAttributeNS( nsXMLNS, "xmlns:html", nsHTML ); }
 
 
-      // ═══════════
-      // Body fracta
-      // ═══════════
+      // ════════════════
+      // Translation pass, applying each translation stage to each node in turn  [TS]
+      // ════════════════
+        documentTitle = null; // Unless one can be derived from the text.
         imagedBodyFracta.clear();
-        for( Element bF = successorFractum(fileFractum);  bF != null;  bF = successorFractum(bF) ) {
-
-          // Identification by `id` attribution
-          // ──────────────────────────────────
-            final int kMax = 3; // Maximum number of keywords to include in the identifier.
-            final ArrayList<String> keywords = new ArrayList<>( /*initial capacity*/kMax );
-
-          // gather the longest keywords from the fractal head
-          // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
-            final Element head = head( bF );
-            skim: {
-                final StringTokenizer tt = new StringTokenizer( sourceText(head), " \n\r\u00A0" );
-                  // Parsing into tokens the text of the fractal head broken on Breccian whitespace.
-                do { // Fill `keywords` with the first tokens in linear order.
-                    if( !tt.hasMoreTokens() ) break skim;
-                    keywords.add( keyword( tt.nextToken() )); }
-                    while( keywords.size() < kMax );
-                boolean keywordsHaveChanged = true;
-                int shortest = -1, shortestLength = -1; // Index and length of the shortest keyword.
-                while( tt.hasMoreTokens() ) { // Parse the remainder, ensuring the longest are chosen.
-                    if( keywordsHaveChanged ) { // Then find the `shortest`.
-                        int k = kMax - 1;
-                        shortest = k;
-                        shortestLength = keywords.get(k).length();
-                        do {
-                            --k;
-                            final int kLength = keywords.get(k).length();
-                            if( kLength < shortestLength ) {
-                                shortestLength = kLength;
-                                shortest = k; }}
-                            while( k > 0 ); }
-                    final String keyword = keyword( tt.nextToken() );
-                    if( keyword.length() > shortestLength ) {
-                        keywords.remove( shortest );
-                        keywords.add( keyword );
-                        keywordsHaveChanged = true; }}}
-
-          // compose the identifier from the keywords
-          // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
-            final String id; {
-                final StringBuilder ib = clear( stringBuilder );
-                for( int k = 0;; ) {
-                    final StringBuilder kb = clear(stringBuilder2).append( keywords.get( k ));
-                    if( kb.length() > 12 ) kb.setLength( 12 ); // Putting a limit on keyword length.
-                    ib.append( kb.toString() );
-                    if( ++k == keywords.size() ) break;
-                    ib.append( /*keyword separator*/',' ); }
-                idMap.compute( /*base identifier*/ib.toString(), (ib_, count) -> {
-                    if( count != null ) {
-                        ++count;
-                        ib.append( ':' ).append( count ); } // Appending to the base an ordinal suffix.
-                    else count = 1;
-                    return count; });
-                bF.setAttribute( "id", id = ib.toString() ); }
-
-          // Self hyperlink
-          // ──────────────
-            final Element a = d.createElementNS( nsHTML, "html:a" );
-            head.appendChild( a );
-            a.setAttributeNS( nsImager, "img:nonOriginalText", "" );
-            a.setAttribute( "class", "self" );
-            a.setAttribute( "href", '#' + id );
-            a.setAttribute( "onclick", "Breccia_Web_imager.fractumSelfHyperlink_hearClick( event )" );
-            a.appendChild( d.createTextNode( "    " )); // Enabling the hyperlink and setting its width.
-
-          // Flush heads so marked, for sake of `image.css` where it depends on this
-          // ───────────
-            Node pI = head.getFirstChild();
-            if( hasName( "DividerSegment", pI )) pI = pI.getFirstChild();
-            assert hasName( "PerfectIndent", pI );
-            if( !pI.hasChildNodes() ) head.setAttribute( "isFlush"/*to the left margin*/, "" );
-
-          // Record of image
-          // ───────────────
-            imagedBodyFracta.add( new ImagedBodyFractum(
-              parseUnsignedInt( bF.getAttribute( "xunc" )),
-              parseUnsignedInt( bF.getAttribute( "lineNumber" )), id, xuncEnd(bF) )); }
+        final TranslationStage[] stages = translationStages.toArray( translationStageArrayType );
+        for( Node n = successor(fileFractum);  n != null;  n = successor(n) ) {
+            for( final TranslationStage s: stages ) n = s.translate( n ); }
+        title.appendChild( d.createTextNode( documentTitle == null ? "Untitled" : documentTitle )); /*
+          A title *is* mandatory.  https://html.spec.whatwg.org/multipage/semantics.html#the-head-element */
         final Path imageFile = imageSibling(sourceFile).normalize();
-        mould.imageFilesLocal.put( imageFile, newImageFile(
-          imageFile, fileFractum, imagedBodyFracta.toArray(imagedBodyFractaType) ));
+        mould.imageFilesLocal_put( imageFile, newImageFile(
+          imageFile, fileFractum, imagedBodyFracta.toArray(imagedBodyFractaType) )); }
 
 
-      // ═══════
-      // Bullets
-      // ═══════
-        for( Element e = successorElement(fileFractum);  e != null;  e = successorElement(e) ) {
-            if( !hasName( "Bullet", e )) continue;
-            final Element bullet = e;
-            final String text; {
-                final Text t = (Text)bullet.getFirstChild();
-                assert t.getNextSibling() == null; /* The bullet text comes in a single node.
-                  On this assumption the present code depends. */
-                text = t.getData();
-                bullet.removeChild( t ); }
-            final String typeMark; {
-                switch( parseInt(parentAsElement(parentAsElement(bullet)).getAttribute( "typestamp" ))) {
-                                      default -> typeMark = text; // It constitutes the whole bullet.
-                    case Typestamp.alarmPoint -> typeMark = "!!";
-                    case Typestamp.plainPoint -> typeMark =   ""; // No type mark at all.
-                    case Typestamp.taskPoint  -> typeMark =  "+"; }
-                assert text.endsWith( typeMark ); }
-
-          // Free-form part, if any
-          // ──────────────
-            final int freeLength = text.length() - typeMark.length(); // Length of the free-form part.
-            if( freeLength > 0 ) {
-                final Element f = d.createElementNS( nsImager, "img:freeForm" );
-                bullet.appendChild( f );                      // Now collate the free-form text,
-                final StringBuilder bB = clear( stringBuilder ); // dividing it among `boldable`,
-                final StringBuilder bM = clear( stringBuilder2 ); // `minor` stylable,
-                final StringBuilder bU = clear( stringBuilder3 ); // and unstylable sequences.
-                boolean isMath = false, isMathTerminus = false;
-                for( int ch, mathDelimiter = 0, c = 0; c < freeLength; c += charCount(ch) ) {
-                    ch = text.codePointAt( c );
-                    if( isMath ) {
-                        if( ch == mathDelimiter ) isMathTerminus = true; }
-                    else if( isMathDelimiter( ch )) {
-                        isMath = true;
-                        mathDelimiter = ch; }
-                    if( !isMath ) {
-                        if( isSpace( ch )) {
-                            StringBuilder b;
-                            if( !bB.isEmpty() ) b = bB;
-                            else if( !bM.isEmpty() ) b = bM;
-                            else {
-                                assert !bU.isEmpty(): "No bullet starts with a space";
-                                b = bU; }
-                            b.appendCodePoint( ch ); // Continuing the same styling through the space.
-                            continue; }
-
-                      // `boldable` styling
-                      // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
-                        if( isBoldable( ch )) {
-                            if( bB.isEmpty() ) { /*switch to it*/var _ = flushM(bM,f) || flushU(bU,f); }
-                            bB.appendCodePoint( ch );
-                            continue; }
-
-                      // `minor` styling
-                      // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
-                        if( isMinor( ch )) {
-                            if( bM.isEmpty() ) { /*switch to it*/var _ = flushB(bB,f) || flushU(bU,f); }
-                            bM.appendCodePoint( ch );
-                            continue; }}
-
-                  // default `span` of unstylable characters
-                  // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈
-                    if( bU.isEmpty() ) { /*switch to it*/var _ = flushB(bB,f) || flushM(bM,f); }
-                    bU.appendCodePoint( ch );
-                    if( isMathTerminus ) {
-                        isMath = isMathTerminus = false;
-                        mathDelimiter = 0; }}
-                var _ = flushB(bB,f) || flushM(bM,f) || flushU(bU,f);
-                assert bB.isEmpty() && bM.isEmpty() && bU.isEmpty(); }
-
-          // Type marker, if any
-          // ───────────
-            if( typeMark.length() > 0 ) {
-                final Element m = d.createElementNS( nsImager, "img:typeMarker" );
-                bullet.appendChild( m );
-                m.appendChild( d.createTextNode( typeMark )); }}
-
-
-      // ═══════════
-      // Mathematics that MathJax images in block (aka display) as opposed to in-line form
-      // ═══════════
-        if( opt.toImageMath() ) for( Node n = successor(fileFractum);  n != null;  n = successor(n) ) {
-            if( !isText( n )) continue;
-            Text nText = (Text)n;
-            assert !nText.isElementContentWhitespace(); /* The `sourceXCursor` has produced
-              ‘X-Breccia with no ignorable whitespace’. */
-            final String text = nText.getData();
-            text: for( int ch, c = 0, cLast = text.length() - 1; c <= cLast; c += charCount(ch) ) {
+
+    /** Translates `n` if it is the image of a body fractum, identifying it by an `id` attribute,
+      * giving it a self hyperlink and recording it in `imagedBodyFracta`.  A translation stage.
+      *
+      *     @see #translationStages
+      *//*
+        @paramImplied #stringBuilder
+      * @paramImplied #stringBuilder3
+      */
+    private Node translate_bodyFractum( final Node n ) {
+        if( !isElement(n) || !isFractum((Element)n) ) return n;
+        final Element bF = (Element)n;
+        final Document d = bF.getOwnerDocument();
+
+      // Identification by `id` attribution
+      // ──────────────────────────────────
+        final int kMax = 3; // Maximum number of keywords to include in the identifier.
+        final int[] keywords = keywordSpans;
+        int kN = 0; // Number of keywords gathered.
+
+      // gather the longest keywords from the fractal head
+      // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
+        final Element head = head( bF );
+        final String tH = headText( head );
+        for( int c = 0, cN = tH.length();; ) { /* Scanning the tokens of the fractal head
+              broken on Breccian whitespace. */
+            while( c < cN  &&  isTokenDelimiter(tH.charAt(c)) ) ++c;
+            if( c == cN ) break;
+            final int tStart = c;
+            do ++c; while( c < cN  &&  !isTokenDelimiter(tH.charAt(c)) );
+            final int kLength = keywordLength( tH, tStart, c );
+            int k; // Index in `keywords` at which to set the token as a keyword.
+            if( kN < kMax ) k = kN++; // Filling `keywords` with the first tokens in linear order.
+            else { // Parsing the remainder, ensuring the longest are chosen.
+                int shortest = kMax - 1; // Index of the shortest keyword, the last of any equals.
+                for( k = kMax - 2; k >= 0; --k ) {
+                    if( keywords[3*k+2] < keywords[3*shortest+2] ) shortest = k; }
+                if( kLength <= keywords[3*shortest+2] ) continue;
+                arraycopy( keywords, 3*(shortest+1), keywords, 3*shortest, 3*(kMax-1-shortest) );
+                k = kMax - 1; } // Removing the shortest, and setting the token after the others.
+            keywords[3*k] = tStart;
+            keywords[3*k+1] = c;
+            keywords[3*k+2] = kLength; }
+        assert kN > 0; // No fractal head is without a token.
+
+      // compose the identifier from the keywords
+      // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
+        final String id; {
+            final StringBuilder ib = clear( stringBuilder );
+            for( int k = 0;; ) {
+                appendKeyword( tH, keywords[3*k], keywords[3*k+1], /*limit*/12, ib );
+                if( ++k == kN ) break;
+                ib.append( /*keyword separator*/',' ); }
+            final int count = idCounts.increment( /*base identifier*/ib );
+            if( count > 1 ) ib.append( ':' ).append( count ); // Appending an ordinal suffix.
+            bF.setAttribute( "id", id = ib.toString() ); }
+
+      // Self hyperlink
+      // ──────────────
+        final Element a = d.createElementNS( nsHTML, "html:a" );
+        head.appendChild( a );
+        a.setAttributeNS( nsImager, "img:nonOriginalText", "" );
+        a.setAttribute( "class", "self" );
+        a.setAttribute( "href", '#' + id );
+        a.setAttribute( "onclick", "Breccia_Web_imager.fractumSelfHyperlink_hearClick( event )" );
+        a.appendChild( d.createTextNode( "    " )); // Enabling the hyperlink and setting its width.
+
+      // Flush heads so marked, for sake of `image.css` where it depends on this
+      // ───────────
+        Node pI = head.getFirstChild();
+        if( hasName( "DividerSegment", pI )) pI = pI.getFirstChild();
+        assert hasName( "PerfectIndent", pI );
+        if( !pI.hasChildNodes() ) head.setAttribute( "isFlush"/*to the left margin*/, "" );
+
+      // Record of image
+      // ───────────────
+        final HeadOffsets headOffsets = offsets.head( head );
+        imagedBodyFracta.add( new ImagedBodyFractum( headOffsets.xunc(), headOffsets.lineNumber(),
+          id, xuncEnd(bF) ));
+        return n; }
+
+
+
+    /** Translates `n` if it is the image of a bullet, dividing its text among styled elements.
+      * A translation stage.
+      *
+      *     @see #translationStages
+      *//*
+        @paramImplied #stringBuilder
+      * @paramImplied #stringBuilder2
+      * @paramImplied #stringBuilder3
+      */
+    private Node translate_bullet( final Node n ) {
+        if( !hasName( "Bullet", n )) return n;
+        final Element bullet = (Element)n;
+        final Document d = bullet.getOwnerDocument();
+        final String text; {
+            final Text t = (Text)bullet.getFirstChild();
+            assert t.getNextSibling() == null; /* The bullet text comes in a single node.
+              On this assumption the present code depends. */
+            text = t.getData();
+            bullet.removeChild( t ); }
+        final String typeMark; {
+            switch( parseInt(parentAsElement(parentAsElement(bullet)).getAttribute( "typestamp" ))) {
+                                  default -> typeMark = text; // It constitutes the whole bullet.
+                case Typestamp.alarmPoint -> typeMark = "!!";
+                case Typestamp.plainPoint -> typeMark =   ""; // No type mark at all.
+                case Typestamp.taskPoint  -> typeMark =  "+"; }
+            assert text.endsWith( typeMark ); }
+
+      // Free-form part, if any
+      // ──────────────
+        final int freeLength = text.length() - typeMark.length(); // Length of the free-form part.
+        if( freeLength > 0 ) {
+            final Element f = d.createElementNS( nsImager, "img:freeForm" );
+            bullet.appendChild( f );                      // Now collate the free-form text,
+            final StringBuilder bB = clear( stringBuilder ); // dividing it among `boldable`,
+            final StringBuilder bM = clear( stringBuilder2 ); // `minor` stylable,
+            final StringBuilder bU = clear( stringBuilder3 ); // and unstylable sequences.
+            boolean isMath = false, isMathTerminus = false;
+            for( int ch, mathDelimiter = 0, c = 0; c < freeLength; c += charCount(ch) ) {
                 ch = text.codePointAt( c );
-                if( ch != mathBlockDelimiter ) continue;
-                final int b = c; // Offset of the start delimiter for the math.
-                ++c; // Through the start delimiter.
-                for(; c <= cLast; c += charCount(ch) ) { // Seek the corresponding end delimiter:
-                    ch = text.codePointAt( c );
-                    if( ch != mathBlockDelimiter  ) continue;
-
-                  // Wrap the math so the style rules can better lay out MathJax’s images
-                  // ─────────────
-                    if( c != cLast ) { // Then text occurs *after* the end delimiter.
-                        nText.splitText( c + 1 ); } // Split it off, to become `nText` for the next pass.
-                    if( b != 0 ) { // Then text occurs *before* the start delimiter.
-                        n = nText = nText.splitText( b ); } // Split it off, to leave it behind.
-                    final Element math = d.createElementNS( nsImager, "img:mathBlock" );
-                    final Node p = nText.getParentNode();
-                    if( hasName( math.getLocalName(), p )) throw new IllegalStateException();
-                    p.insertBefore( math, nText );
-                    math.appendChild( nText ); /* MathJax at runtime
-                      will replace `nText` with its imaging elements. */
-                 // nText.insertData( 1/*after delimiter*/, "\\large " ); /* For legibility of
-                 //   small elements such as subscripts.  Alternatives would be (a) the MathJax
-                 //   `scale` option, except it cannot be restricted to math which has block layout;
-                 //   and (b) CSS styling, except it may cause layout artifacts.
-                 //   (a) https://docs.mathjax.org/en/latest/options/output/index.html#output-options
-                 //   (b) https://stackoverflow.com/a/25329062/2402790 */
-                    break text; }
-                break; }}
-
-
-      // ══════════════
-      // Titling labels
-      // ══════════════
-        for( Element tL = successorTitlingLabel(fileFractum); tL != null;
-              tL = successorTitlingLabel(tL) ) {
+                final int classes = bulletClasses.of( ch );
+                if( isMath ) {
+                    if( ch == mathDelimiter ) isMathTerminus = true; }
+                else if( (classes & bulletMathDelimiter) != 0 ) {
+                    isMath = true;
+                    mathDelimiter = ch; }
+                if( !isMath ) {
+                    if( (classes & bulletSpace) != 0 ) {
+                        StringBuilder b;
+                        if( !bB.isEmpty() ) b = bB;
+                        else if( !bM.isEmpty() ) b = bM;
+                        else {
+                            assert !bU.isEmpty(): "No bullet starts with a space";
+                            b = bU; }
+                        b.appendCodePoint( ch ); // Continuing the same styling through the space.
+                        continue; }
+
+                  // `boldable` styling
+                  // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
+                    if( (classes & bulletBoldable) != 0 ) {
+                        if( bB.isEmpty() ) { /*switch to it*/var _ = flushM(bM,f) || flushU(bU,f); }
+                        bB.appendCodePoint( ch );
+                        continue; }
+
+                  // `minor` styling
+                  // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈┈
+                    if( (classes & bulletMinor) != 0 ) {
+                        if( bM.isEmpty() ) { /*switch to it*/var _ = flushB(bB,f) || flushU(bU,f); }
+                        bM.appendCodePoint( ch );
+                        continue; }}
+
+              // default `span` of unstylable characters
+              // ┈┈┈┈┈┈┈┈┈┈┈┈┈┈
+                if( bU.isEmpty() ) { /*switch to it*/var _ = flushB(bB,f) || flushM(bM,f); }
+                bU.appendCodePoint( ch );
+                if( isMathTerminus ) {
+                    isMath = isMathTerminus = false;
+                    mathDelimiter = 0; }}
+            var _ = flushB(bB,f) || flushM(bM,f) || flushU(bU,f);
+            assert bB.isEmpty() && bM.isEmpty() && bU.isEmpty(); }
+
+      // Type marker, if any
+      // ───────────
+        if( typeMark.length() > 0 ) {
+            final Element m = d.createElementNS( nsImager, "img:typeMarker" );
+            bullet.appendChild( m );
+            m.appendChild( d.createTextNode( typeMark )); }
+        return n; }
+
+
+
+    /** Derives the `documentTitle` from `n` if none is yet derived and `n` is the image of a fractal
+      * head that yields one.  A translation stage.
+      *
+      *     @see #translationStages
+      *//*
+        @paramImplied #stringBuilder
+      * @paramImplied #stringBuilder2
+      */
+    private Node translate_fileTitle( final Node n ) {
+        if( documentTitle == null  &&  hasName( "Head", n )) documentTitle = fileTitle( (Element)n );
+        return n; }
+
+
+
+    /** Translates `n` if it is a text node that contains mathematics for MathJax to image in block
+      * (aka display) as opposed to in-line form, wrapping the first such expression in an element
+      * of its own.  A translation stage.
+      *
+      *     @return The node that now holds the expression, or `n` itself if there is none.
+      *       Any text that followed the expression is split off to succeed it.
+      *     @see #translationStages
+      */
+    private Node translate_mathBlock( Node n ) {
+        if( !isText( n ) || !opt.toImageMath() ) return n;
+        final Document d = n.getOwnerDocument();
+        Text nText = (Text)n;
+        assert !nText.isElementContentWhitespace(); /* The `sourceXCursor` has produced
+          ‘X-Breccia with no ignorable whitespace’. */
+        final String text = nText.getData();
+        text: for( int ch, c = 0, cLast = text.length() - 1; c <= cLast; c += charCount(ch) ) {
+            ch = text.codePointAt( c );
+            if( ch != mathBlockDelimiter ) continue;
+            final int b = c; // Offset of the start delimiter for the math.
+            ++c; // Through the start delimiter.
+            for(; c <= cLast; c += charCount(ch) ) { // Seek the corresponding end delimiter:
+                ch = text.codePointAt( c );
+                if( ch != mathBlockDelimiter  ) continue;
+
+              // Wrap the math so the style rules can better lay out MathJax’s images
+              // ─────────────
+                if( c != cLast ) { // Then text occurs *after* the end delimiter.
+                    nText.splitText( c + 1 ); } // Split it off, to become `nText` for the next pass.
+                if( b != 0 ) { // Then text occurs *before* the start delimiter.
+                    n = nText = nText.splitText( b ); } // Split it off, to leave it behind.
+                final Element math = d.createElementNS( nsImager, "img:mathBlock" );
+                final Node p = nText.getParentNode();
+                if( hasName( math.getLocalName(), p )) throw new IllegalStateException();
+                p.insertBefore( math, nText );
+                math.appendChild( nText ); /* MathJax at runtime
+                  will replace `nText` with its imaging elements. */
+             // nText.insertData( 1/*after delimiter*/, "\\large " ); /* For legibility of
+             //   small elements such as subscripts.  Alternatives would be (a) the MathJax
+             //   `scale` option, except it cannot be restricted to math which has block layout;
+             //   and (b) CSS styling, except it may cause layout artifacts.
+             //   (a) https://docs.mathjax.org/en/latest/options/output/index.html#output-options
+             //   (b) https://stackoverflow.com/a/25329062/2402790 */
+                break text; }
+            break; }
+        return n; }
+
+
+
+    /** Marks `n` with a `titling` class if it is the image of a titling label.
+      * A translation stage.
+      *
+      *     @see #translationStages
+      */
+    private Node translate_titlingLabel( final Node n ) {
+        if( isElement(n) && isTitlingLabel((Element)n) ) {
+            final Element tL = (Element)n;
             assert "".equals( tL.getAttribute( "class" ));
-            tL.setAttribute( "class", "titling" ); }}
+            tL.setAttribute( "class", "titling" ); }
+        return n; }
+
+
+
+    /** The translation stages that `translate` applies in a single pass over the nodes of each image,
+      * each stage in turn to each node.  A subclass may add stages of its own, as from its constructor,
+      * without adding traversals.  [TS]
+      */
+    protected final List<TranslationStage> translationStages = new ArrayList<>( List.of(
+      this::translate_fileTitle, this::translate_bodyFractum, this::translate_bullet,
+      this::translate_mathBlock, this::translate_titlingLabel ));
+
+
+
+    private static final TranslationStage[] translationStageArrayType = new TranslationStage[0];
 
 
 
@@ -1537,12 +1905,22 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
+    /** @param eP The image of a Breccian regular-expression pattern, or of its implicit source.
+      * @param jP The Java compilation of `eP`.
+      */
+    private void warn( final Path f, final Element eP, final Pattern jP, final OvertimeMatch x ) {
+        final CharacterPointer p = characterPointer( eP );
+        warn( f, p, "Pattern unresolved, its search exceeds the time limit of "
+          + opt.patternTimeLimit() + " s\n" + p.markedLine(), jP ); }
+
+
+
     /** @param eP The image of a Breccian regular-expression pattern from a pattern matcher
       */
     private void warn( final Path f, final Element eP, final PatternSyntaxException x ) {
         final CharacterPointer p = characterPointer( eP );
         mould.warn( f, p, "Malformed pattern: " + x.getDescription() + '\n'
-          + markedLine( "    ", x.getPattern(), zeroBased(x.getIndex()), mould.gcc )
+          + markedLine( "    ", x.getPattern(), zeroBased(x.getIndex()), gcc )
           + "\n    Source line in full:\n" + p.markedLine() ); }
 
 
@@ -1565,12 +1943,22 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
+    /** Returns a copy of `f` with the given `xuncEnd`.
+      */
+    private static ImagedBodyFractum withEnd( final ImagedBodyFractum f, final int xuncEnd ) {
+        return new ImagedBodyFractum( f.xunc(), f.lineNumber(), f.identifier(), xuncEnd ); }
+
+
+
     private void write( final Document document, final Path imageFile,
           final OpenOption... outputOptions ) throws IOException, TransformerException {
         fromDOM.setNode( document );
         try( final OutputStream imageWriter = newOutputStream​( imageFile, outputOptions )) {
             toImageFile.setOutputStream( imageWriter );
-            identityTransformer.transform( fromDOM, toImageFile ); }}
+            identityTransformer.transform( fromDOM, toImageFile ); }
+        finally {
+            fromDOM.setNode( null ); // [RD]
+            toImageFile.setOutputStream( null ); }}
 
 
 
@@ -1587,27 +1975,38 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
     /** @return The offset in the source text of the end boundary of the given fractum.
       */
-    private static int xuncEnd( final Element fractum ) {
+    private int xuncEnd( final Element fractum ) {
         Element e = successorFractumAfter( fractum );
-        return e == null ? xuncHeadEnd( finalHead( fractum )) :
-          parseUnsignedInt( e.getAttribute( "xunc" )); }
+        return e == null ? offsets.head(finalHead(fractum)).xuncEnd() : offsets.xunc( e ); }
 
 
 
     /** @return The offset in the source text of the end boundary of the file fractum;
       *   in other words, the length of the source text.
       */
-    private static int xuncEnd( final Element fileFractum, final ImagedBodyFractum[] fracta ) {
+    private int xuncEnd( final Element fileFractum, final ImagedBodyFractum[] fracta ) {
         final int fN = fracta.length;
-        return fN == 0 ? xuncHeadEnd( head( fileFractum )) : fracta[fN-1].xuncEnd(); }
+        return fN == 0 ? offsets.head(head(fileFractum)).xuncEnd() : fracta[fN-1].xuncEnd(); }
 
 
 
-    /** @return The offset in the source text of the end boundary of `head`.
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A stage in the translation of an image, applied to each of its nodes in turn.
+      *
+      *     @see #translationStages
       */
-    private static int xuncHeadEnd( final Element head ) {
-        final String ends = head.getAttribute( "xuncLineEnds" );
-        return parseUnsignedInt( ends.substring( ends.lastIndexOf(' ') + 1 )); }}
+    protected static @FunctionalInterface interface TranslationStage {
+
+
+        /** Translates `n` if it falls within the purview of this stage.
+          *
+          *     @param n A node of the image, to which the preceding stages have already been applied.
+          *     @return The node to pass on to the following stages, from whose successor the pass will
+          *       continue.  Usually this is `n` itself.
+          */
+        public Node translate( Node n ); }}
 
 
 
@@ -1619,6 +2018,26 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 //
 //   ◦↑◦  Code that is order dependent with like-marked code (◦↓◦, ◦↕◦) that comes before.
 //
+//   AR · Atomic replacement.  Each image file is written to its temporary sibling, which then is moved
+//        atomically into place, so replacing any former image file.  A reader of the image file
+//        therefore sees either the former file or the new one, never a partly written one.
+//        Being a sibling, the temporary file lies on the same file system, which allows the move
+//        to be a mere renaming.  See `Project.temporarySibling`.
+//
+//   DH · Document handoff.  Where the memory budget allows, the translation of a source file hands its
+//        image document directly to the finishing of it, and no interim image file is written to the
+//        output directory.  See `ImageMould.documentHandoff`.
+//
+//   DOM  The W3C DOM is the working form of each image document, costly though it is in memory,
+//        with an object for each node and attribute, and offsets held as strings.  A compact, array-
+//        backed tree engine to take its place was considered and declined; none is implemented.
+//        The DOM is the common ground of the components that lie outside of this project: the
+//        X-Breccia cursor that yields each document, the `Java.Nodes` helpers, the XHTML serializer
+//        and subclasses such as the Waybreccian translator.  Replacing it would mean replacing
+//        or wrapping each of these.  Meantime its costs are contained in part by parsing the offset
+//        attributes at most once per document (`OffsetIndex`) and by bounding the memory of documents
+//        held in transit from translation to finishing (`DocumentHandoff`).
+//
 //   DTR  ‘A `DOCTYPE` is a required preamble’ in HTML.
 //        https://html.spec.whatwg.org/multipage/syntax.html#the-doctype
 //
@@ -1627,6 +2046,10 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 //   HF · Hyperlink formation.  Done late (in the `finish` cycle) that hyperlink `href` attributes may
 //        incorporate any body-fractum identifiers newly formed earlier (in the `translate` cycle).
 //
+//   HT · Head text.  No step of translation or finishing alters the original text of a head, for all
+//        text added to the image is either marked as non-original or wraps the original in place.
+//        So a head text once read holds good for the rest of the document.
+//
 //   ILP  Ignoring the linker’s parent. ‘Exclude from the search area the head of linker *li*’s parent,
 //         wherein the link subject is mentioned.’
 //        http://reluk.ca/project/Breccia/language_definition.brec.xht#mentioned,matchers,inadvertentl
@@ -1644,6 +2067,11 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 //
 //   RC · Referencing code.  Cf. the comparably structured code of `ImageMould.formalResources_record`.
 //
+//   RD · Releasing the document.  The reusable transformer endpoints (`toDOM`, `fromDOM`, `fromStream`)
+//        are cleared after each use, lest they hold a document or reader between files.  This is mere
+//        hygiene.  It lowers no peak of memory, for each document is whole in memory while it is
+//        translated or finished regardless.  See also [ST].
+//
 //   RFL  Resolving a fractum locant.
 //        http://reluk.ca/project/Breccia/language_definition.brec.xht#located,excluded,location
 //
@@ -1652,6 +2080,19 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 //   SNR  `StAXSource` is ‘not reusable’ according to its API.  This is puzzling, however,
 //        given that it’s a pure wrapper.
 //
+//   ST · Streaming translation, declined.  A mode that would stream X-Breccia parse events to XHTML
+//        without forming a document was considered and declined.  Finishing needs random access
+//        to the whole image document: hyperlink formation rewrites references across the file,
+//        afterlinkers match patterns against parent heads and earlier fracta, and titling labels look
+//        back over the document.  A streaming translation would therefore still form a document for
+//        finishing, while duplicating every stage of translation in a second form whose output
+//        would have to be kept byte-identical by hand.
+//
+//   TS · Translation stages.  Rather than each stage of translation making a traversal of its own,
+//        all are applied in a single pass, each to every node in turn.  The effect is unchanged
+//        in that each stage sees a node only after the preceding stages have translated it,
+//        and the pass continues through any nodes they insert beneath or after it.
+//
 //   UPA  `javax.xml.transform.TransformerException: MalformedURLException: unknown protocol: about`.
 //        Thrown by `identityTransformer` when it reads the workaround system identifier `systemID_HTML`
 //        present in the DTD of each image file. (JDK 18)
@@ -1659,4 +2100,4 @@ public class BreccianFileTranslator<C extends ReusableCursor> implements FileTra
 
 
 
-                                                   // Copyright © 2020-2024  Michael Allan.  Licence MIT.
+                                             // Copyright © 2020-2024, 2026  Michael Allan.  Licence MIT.
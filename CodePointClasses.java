@@ -0,0 +1,66 @@
+package Breccia.Web.imager;
+
+import java.util.function.IntUnaryOperator;
+
+import static java.lang.Character.MAX_CODE_POINT;
+
+
+/** A table of the classes of each code point, formed lazily from a classifier and thereafter read
+  * by two array lookups.  The table spans the code space in blocks of 256 code points, allocating
+  * only the blocks actually read.  An instance may be shared across threads, whose racing formation
+  * of the same entries is harmless, each entry being formed alike by any thread.  [RF]
+  */
+final class CodePointClasses {
+
+
+    /** @param classifier A function of a code point that returns its classes, each a bit in the range
+      *   `0x01` to `0x40`.  It must be thread safe if this table is to be shared across threads.
+      */
+    CodePointClasses( final IntUnaryOperator classifier ) { this.classifier = classifier; }
+
+
+
+    /** Returns the classes of the given code point.
+      */
+    int of( final int ch ) {
+        final int i = ch >>> 8;
+        byte[] block = blocks[i];
+        if( block == null ) blocks[i] = block = new byte[0x100];
+        final int j = ch & 0xFF;
+        int classes = block[j] & 0xFF;
+        if( classes == 0 ) { // Then the entry is yet unformed.
+            classes = classifier.applyAsInt( ch );
+            assert (classes & ~0x7F) == 0;
+            block[j] = (byte)(classes | formed); }
+        return classes & ~formed; }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** The blocks of the table, each null until first read.
+      */
+    private final byte[][] blocks = new byte[(MAX_CODE_POINT >>> 8) + 1][];
+
+
+
+    private final IntUnaryOperator classifier;
+
+
+
+    /** The bit that marks a formed entry, distinguishing it from an unformed one.
+      */
+    private static final int formed = 0x80; }
+
+
+
+// NOTES
+// ─────
+//   RF · Racing formation.  A thread may see a block or entry as yet unformed, though another thread
+//        has formed it.  It then forms its own copy, without harm.  Nor can it see an entry partly
+//        formed, for each is a single byte written whole.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,257 @@
+package Breccia.Web.imager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import Java.Unhandled;
+
+import static Breccia.Web.imager.Project.logger;
+import static Breccia.Web.imager.Project.replaceIfChanged;
+import static Breccia.Web.imager.Project.temporarySibling;
+import static Java.Hashing.initialCapacity;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.readAttributes;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/** A record of the content hashes of files, persisted from one imaging command to the next.
+  * It allows a source file or formal resource whose timestamp alone has changed, as by `touch`
+  * or a version-control checkout, to be treated as unchanged.  Each entry records the hash
+  * of a file as it was when the image files that depend on it were last formed, or found current.
+  * The hash of a file is recomputed only when its timestamp or size has changed since.
+  * The record is stored in the boundary-path directory under the file name `{@value #fileName}`.
+  *
+  * <p>All methods of this class are thread safe.</p>
+  *
+  *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#hash-check'>
+  *         Command option `-hash-check`</a>
+  */
+final class ContentHashes {
+
+
+    /** Makes a record with no former entries.
+      *
+      *     @param directory The directory in which the record is to be stored.
+      */
+    ContentHashes( final Path directory ) { this.directory = directory; }
+
+
+
+    /** Admits the given file to this record, so sparing a later reading of its attributes.
+      *
+      *     @param file The absolute, normalized path of a file.
+      *     @param a The present attributes of `file`.
+      */
+    void admit( final Path file, final BasicFileAttributes a ) { attributes.put( file, a ); }
+
+
+
+    /** The name of a record file.
+      */
+    static final String fileName = ".Breccia.Web.imager_hashes";
+
+
+
+    /** Forgets all that this record has read of the present state of the given file, together
+      * with any entry recorded for it, as when the file is changed or deleted.  Former entries,
+      * as read from file, are unaffected.
+      *
+      *     @param file The absolute, normalized path of a file.
+      */
+    void forget( final Path file ) {
+        attributes.remove( file );
+        entries.remove( file );
+        entriesCurrent.remove( file ); }
+
+
+
+    /** Whether the content of the given file is unchanged since its former entry was recorded.
+      * Returns false if the file has no former entry, or is not a regular file.
+      *
+      *     @param file The absolute, normalized path of a file.
+      */
+    boolean isUnchanged( final Path file ) {
+        final Entry eFormer = entriesFormer.get( file );
+        if( eFormer == null ) return false;
+        final Entry e = current( file );
+        return e.hash != null && Arrays.equals( e.hash, eFormer.hash ); }
+
+
+
+    /** Reads the record from the given file.  An unreadable record is treated as empty.
+      *
+      *     @param file The path of a record file.
+      */
+    static ContentHashes read( final Path file ) {
+        final var h = new ContentHashes( file.getParent() );
+        try( final var in = new DataInputStream( new BufferedInputStream( newInputStream( file )))) {
+            if( in.readInt() != version ) return h;
+            for( int e = in.readInt(); e > 0; --e ) {
+                final Path f = h.directory.resolve( in.readUTF() ).normalize(); // [RP]
+                final long time = in.readLong();
+                final long size = in.readLong();
+                final byte[] hash = new byte[hashLength];
+                in.readFully( hash );
+                h.entriesFormer.put( f, new Entry( time, size, hash )); }}
+        catch( final NoSuchFileException x ) {} // No record has yet been formed.
+        catch( final IOException x ) {
+            logger.warning( () -> "Ignoring the unreadable record `" + file + "`: " + x ); // [LUR]
+            h.entriesFormer.clear(); }
+        return h; }
+
+
+
+    /** Records an entry for the given file, reflecting its present content,
+      * provided the file is a regular file; otherwise does nothing.
+      *
+      *     @param file The absolute, normalized path of a file.
+      */
+    void record( final Path file ) {
+        final Entry e = current( file );
+        if( e.hash != null ) entries.put( file, e ); }
+
+
+
+    /** Writes to the given file the entries recorded since this record was read,
+      * replacing any file already there.
+      *
+      *     @see #record(Path)
+      */
+    void write( final Path file ) {
+        final Path fileTemp = temporarySibling( file );
+        try( final var out = new DataOutputStream( new BufferedOutputStream(
+              newOutputStream( fileTemp )))) {
+            out.writeInt( version );
+            out.writeInt( entries.size() );
+            for( final var entry: new TreeMap<>(entries).entrySet() ) { /* Sorted, so that unchanged
+                  content is written alike. */
+                final Path f = entry.getKey();
+                out.writeUTF( directory.relativize(f).toString() ); // [RP]
+                final Entry e = entry.getValue();
+                out.writeLong( e.time );
+                out.writeLong( e.size );
+                out.write( e.hash ); }}
+        catch( final IOException x ) { throw new Unhandled( x ); }
+        replaceIfChanged( file, fileTemp ); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Admitted files (keys) mapped each to its attributes (value).
+      */
+    private final Map<Path,BasicFileAttributes> attributes = new ConcurrentHashMap<>(
+      initialCapacity( 0x2000/*files*/ )); // = 8192
+
+
+
+    /** Returns an entry for `file` reflecting its present content, computing its hash only if
+      * its timestamp or size differs from that of the former entry.
+      */
+    private Entry current( final Path file ) {
+        return entriesCurrent.computeIfAbsent( file, f -> {
+            BasicFileAttributes a = attributes.get( f );
+            try {
+                if( a == null ) a = readAttributes( f, BasicFileAttributes.class );
+                final long time = a.lastModifiedTime().to( NANOSECONDS );
+                final Entry eFormer = entriesFormer.get( f );
+                if( eFormer != null && eFormer.time == time && eFormer.size == a.size() ) return eFormer;
+                return new Entry( time, a.size(), a.isRegularFile()? hash(f) : null ); }
+            catch( final NoSuchFileException x ) { return new Entry( 0L, 0L, null ); } /* As for a formal
+              resource deleted during a watch, whose dependants yet record it. */
+            catch( final IOException x ) { throw new Unhandled( x ); }}); }
+
+
+
+    private final Path directory;
+
+
+
+    /** Files (keys) mapped each to its recorded entry (value).
+      */
+    private final Map<Path,Entry> entries = new ConcurrentHashMap<>(
+      initialCapacity( 0x2000/*files*/ )); // = 8192
+
+
+
+    /** Files (keys) mapped each to an entry reflecting its present content (value).
+      */
+    private final Map<Path,Entry> entriesCurrent = new ConcurrentHashMap<>(
+      initialCapacity( 0x2000/*files*/ )); // = 8192
+
+
+
+    /** Files (keys) mapped each to its entry (value) as read from file.
+      */
+    private final Map<Path,Entry> entriesFormer = new HashMap<>(
+      initialCapacity( 0x2000/*files*/ )); // = 8192
+
+
+
+    /** Returns the content hash of the given file.
+      */
+    static byte[] hash( final Path file ) throws IOException {
+        final MessageDigest digest; {
+            try { digest = MessageDigest.getInstance( hashAlgorithm ); }
+            catch( final NoSuchAlgorithmException x ) { throw new Unhandled( x ); }} /* Unexpected,
+              every implementation of the Java platform being required to support the algorithm. */
+        final byte[] buffer = new byte[0x2000]; // = 8192
+        try( final InputStream in = newInputStream( file )) {
+            for( int n; (n = in.read(buffer)) >= 0; ) digest.update( buffer, 0, n ); }
+        return digest.digest(); }
+
+
+
+    private static final String hashAlgorithm = "SHA-256";
+
+
+
+    private static final int hashLength = 32; // Bytes, as yielded by `hashAlgorithm`.
+
+
+
+    /** The version of the record file format.
+      */
+    private static final int version = 1;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** The entry of a file in the record.
+      *
+      *     @param time The last-modified time of the file in nanoseconds since the epoch.
+      *     @param size The size of the file in bytes.
+      *     @param hash The content hash of the file, or null if the file is not a regular file,
+      *       such as a directory, and so has no content hash.
+      */
+    private static record Entry( long time, long size, byte[] hash ) {}}
+
+
+
+// NOTES
+// ─────
+//   LUR  Logging of unexpected yet recoverable IO errors.  See `ImageMould`.
+//
+//   RP · Relative path.  A formal resource may lie outside of the directory, in which case its relative
+//        path climbs out of the directory (`..`) and normalization on reading restores its true path.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
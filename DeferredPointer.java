@@ -0,0 +1,51 @@
+package Breccia.Web.imager;
+
+import Java.CharacterPointer;
+import java.util.function.Supplier;
+
+
+/** A character pointer whose formation is deferred until needed.  Forming a pointer means
+  * locating its line, extracting the line and counting grapheme clusters to find its column,
+  * which is wasted on any warning that in the end goes unissued, as duplicates do.
+  *
+  *     @see ImageMould#warnOnce(java.nio.file.Path,DeferredPointer,String,java.util.function.Function)
+  */
+final class DeferredPointer {
+
+
+    /** @param xunc The offset in the source text of the character to point to.
+      * @param former The means of forming the pointer.
+      */
+    DeferredPointer( final int xunc, final Supplier<CharacterPointer> former ) {
+        this.xunc = xunc;
+        this.former = former; }
+
+
+
+    /** Returns the pointer, forming it if necessary.
+      */
+    CharacterPointer get() {
+        if( pointer == null ) pointer = former.get();
+        return pointer; }
+
+
+
+    /** The offset in the source text of the character pointed to, in UTF-16 code units.
+      * It alone locates the character, which `get` would only elaborate.
+      */
+    final int xunc;
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private final Supplier<CharacterPointer> former;
+
+
+
+    private CharacterPointer pointer; }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,90 @@
+package Breccia.Web.imager;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.w3c.dom.Document;
+
+import static Java.Hashing.initialCapacity;
+
+
+/** A bounded, in-memory store of image documents in transit from the translation of their source files
+  * to the finishing of their image files.  It spares the writing, reading and reparsing of an interim
+  * image file for each document it holds.  Documents that would exceed its memory budget are refused,
+  * and must travel instead by way of interim image files.  This class is thread safe.
+  *
+  *     @see FileTranslator#translate(Path,Path)
+  *     @see FileTranslator#finish(Path,Path)
+  */
+final class DocumentHandoff {
+
+
+    /** @param budget The memory budget in bytes, a bound on the sum of the weights of held documents.
+      */
+    DocumentHandoff( final long budget ) { this.budget = budget; }
+
+
+
+    /** Holds the given document for later taking, provided its weight fits within the memory budget.
+      *
+      *     @param imageFile The path of the image file to which the document is destined.
+      *     @param weight The estimated memory footprint of the document in bytes.
+      *     @return True if the document is held, false if it was refused.
+      */
+    synchronized boolean offer( final Path imageFile, final Document d, final long weight ) {
+        if( weight > budget - weightHeld ) return false;
+        final Held h = held.put( imageFile, new Held( d, weight ));
+        if( h != null ) weightHeld -= h.weight; // Replacing a document that was never taken.
+        weightHeld += weight;
+        return true; }
+
+
+
+    /** Removes from this store and returns the document destined to the given image file,
+      * or returns null if none is held.
+      */
+    synchronized Document take( final Path imageFile ) {
+        final Held h = held.remove( imageFile );
+        if( h == null ) return null;
+        weightHeld -= h.weight;
+        return h.document; }
+
+
+
+    /** Returns an estimate of the memory footprint of the image document of a source text
+      * of the given length.
+      *
+      *     @param sourceLength The length of the source text in characters.
+      */
+    static long weightOf( final int sourceLength ) { // A rough and generous estimate.
+        return 0x400L/*= 1024*/ + 0x30L/*= 48*/ * sourceLength; }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private final long budget;
+
+
+
+    /** Image files (keys) mapped each to the document destined to it (value).
+      */
+    private final Map<Path,Held> held = new HashMap<>( initialCapacity( 0x100 )); // = 256
+
+
+
+    /** The sum of the weights of the held documents.
+      */
+    private long weightHeld;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    private static record Held( Document document, long weight ) {}}
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
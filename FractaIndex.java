@@ -0,0 +1,204 @@
+package Breccia.Web.imager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static Breccia.parser.plain.Project.newSourceReader;
+import static Breccia.Web.imager.Project.indexSibling;
+import static Breccia.Web.imager.Project.logger;
+import static Breccia.Web.imager.Project.sourceSibling;
+import static Breccia.Web.imager.Project.temporarySibling;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.readAttributes;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/** The fracta index of an image file, a binary record of its image stored beside it.  It spares
+  * the reading and parsing of the image file itself wherever a record of the image is needed,
+  * as for the resolution of fractum locants that refer to the file.  The index holds the table
+  * of imaged body fracta alone, not the source text, which instead it reads from the source file
+  * on demand.  The index is valid only while the image file and its source file each keep
+  * the timestamp and size they had when the index was written.
+  *
+  *     @see Project#indexSibling(Path)
+  *     @see ImageFile
+  */
+final class FractaIndex {
+
+
+    private FractaIndex() {}
+
+
+
+    /** Decodes a record of an image file from the given buffer, starting at its present position.
+      * The source text of the record is a view of the buffer, not a copy.
+      *
+      *     @see #encode(ImageFile,DataOutputStream)
+      */
+    static ImageFile decode( final ByteBuffer b ) {
+        final boolean isLatin1 = b.get() != 0;
+        final ImagedBodyFractum[] fracta = decodeFracta( b );
+        final int textLength = b.getInt();
+        return new ImageFile( new StoredText( b.slice( b.position(), isLatin1 ? textLength
+          : textLength << 1 ), isLatin1 ), fracta ); }
+
+
+
+    /** Encodes the given record of an image file to `out`, source text and all.
+      *
+      *     @see #decode(ByteBuffer)
+      */
+    static void encode( final ImageFile rec, final DataOutputStream out ) throws IOException {
+        final CharSequence text = rec.sourceText();
+        out.writeBoolean( StoredText.isLatin1( text ));
+        encodeFracta( rec.fracta(), out );
+        out.writeInt( text.length() );
+        out.write( StoredText.encode( text )); }
+
+
+
+    /** Reads by memory mapping the fracta index of the given image file, provided the index
+      * exists and is valid, then reads the source text from the source sibling of the image file.
+      *
+      *     @param imageFile The path of an image file.
+      *     @return A record of the image file, or null if its index is absent or invalid.
+      *     @see Project#sourceSibling(Path)
+      */
+    static ImageFile read( final Path imageFile ) {
+        final Path file = indexSibling( imageFile );
+        final Path sourceFile = sourceSibling( imageFile );
+        try( final FileChannel ch = FileChannel.open( file )) {
+            final ByteBuffer b = ch.map( READ_ONLY, 0, ch.size() ); // The mapping outlives `ch`.
+            if( b.getInt() != version ) return null;
+            if( !isUnchanged( imageFile, b )) return null;
+            if( !isUnchanged( sourceFile, b )) return null; // Else its text would misalign the table.
+            final int textLength = b.getInt();
+            final ImagedBodyFractum[] fracta = decodeFracta( b );
+            final StringBuilder text = new StringBuilder( textLength );
+            try( final Reader in = newSourceReader( sourceFile )) {
+                final char[] buffer = new char[0x2000]; // = 8192
+                for( int n; (n = in.read( buffer )) >= 0; ) text.append( buffer, 0, n ); }
+            if( text.length() != textLength ) return null; // The source file has since changed.
+            return new ImageFile( text.toString(), fracta ); }
+        catch( final NoSuchFileException x ) { return null; } // No index, image file or source file.
+        catch( final IOException|BufferUnderflowException|IndexOutOfBoundsException x ) { // Truncated?
+            logger.warning( () -> "Ignoring the unreadable index `" + file + "`: " + x ); // [LUR]
+            return null; }}
+
+
+
+    /** Writes the fracta index of the given image file, replacing any already there.
+      * It writes the index first to a temporary sibling, then moves it atomically into place.
+      *
+      *     @param imageFile The path of an existing image file, in its final form.
+      *     @param sourceFile The path of the source file of the image file.
+      *     @param rec A record of the image file.
+      *     @see Project#temporarySibling(Path)
+      */
+    static void write( final Path imageFile, final Path sourceFile, final ImageFile rec )
+          throws IOException {
+        final Path file = indexSibling( imageFile );
+        final Path fileTemp = temporarySibling( file );
+        try {
+            try( final var out = new DataOutputStream( new BufferedOutputStream(
+                  newOutputStream( fileTemp )))) {
+                out.writeInt( version );
+                writeAttributes( imageFile, out );
+                writeAttributes( sourceFile, out );
+                out.writeInt( rec.sourceText().length() );
+                encodeFracta( rec.fracta(), out ); }
+            move( fileTemp, file, ATOMIC_MOVE, REPLACE_EXISTING ); }
+        catch( final IOException x ) {
+            try { deleteIfExists( fileTemp ); } // Leaving any former index in place.
+            catch( IOException xD ) { x.addSuppressed( xD ); }
+            throw x; }}
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Decodes a table of imaged body fracta from the given buffer, starting at its present position.
+      *
+      *     @see #encodeFracta(ImagedBodyFractum[],DataOutputStream)
+      */
+    private static ImagedBodyFractum[] decodeFracta( final ByteBuffer b ) {
+        final ImagedBodyFractum[] fracta = new ImagedBodyFractum[b.getInt()];
+        for( int f = 0; f < fracta.length; ++f ) {
+            final int xunc = b.getInt();
+            final int lineNumber = b.getInt();
+            final int xuncEnd = b.getInt();
+            final char[] identifier = new char[b.getInt()];
+            for( int c = 0; c < identifier.length; ++c ) identifier[c] = b.getChar();
+            fracta[f] = new ImagedBodyFractum( xunc, lineNumber, new String(identifier), xuncEnd ); }
+        return fracta; }
+
+
+
+    /** Encodes the given table of imaged body fracta to `out`.
+      *
+      *     @see #decodeFracta(ByteBuffer)
+      */
+    private static void encodeFracta( final ImagedBodyFractum[] fracta, final DataOutputStream out )
+          throws IOException {
+        out.writeInt( fracta.length );
+        for( final ImagedBodyFractum f: fracta ) {
+            out.writeInt( f.xunc() );
+            out.writeInt( f.lineNumber() );
+            out.writeInt( f.xuncEnd() );
+            out.writeInt( f.identifier().length() );
+            out.writeChars( f.identifier() ); }}
+
+
+
+    /** Reads from the given buffer, starting at its present position, the timestamp and size
+      * of a file as recorded by `writeAttributes`, and tells whether the file still has them.
+      *
+      *     @see #writeAttributes(Path,DataOutputStream)
+      */
+    private static boolean isUnchanged( final Path file, final ByteBuffer b ) throws IOException {
+        final BasicFileAttributes a = readAttributes( file, BasicFileAttributes.class );
+        final long time = b.getLong();
+        final long size = b.getLong();
+        return time == a.lastModifiedTime().to(NANOSECONDS) && size == a.size(); }
+
+
+
+    /** The version of the index file format.
+      */
+    private static final int version = 2;
+
+
+
+    /** Writes to `out` the present timestamp and size of the given file.
+      *
+      *     @see #isUnchanged(Path,ByteBuffer)
+      */
+    private static void writeAttributes( final Path file, final DataOutputStream out )
+          throws IOException {
+        final BasicFileAttributes a = readAttributes( file, BasicFileAttributes.class );
+        out.writeLong( a.lastModifiedTime().to( NANOSECONDS ));
+        out.writeLong( a.size() ); }}
+
+
+
+// NOTES
+// ─────
+//   LUR  Logging of unexpected yet recoverable IO errors.  See `ImageMould`.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,222 @@
+package Breccia.Web.imager;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import Java.Unhandled;
+
+import static Breccia.Web.imager.Project.logger;
+import static Breccia.Web.imager.Project.replaceIfChanged;
+import static Breccia.Web.imager.Project.temporarySibling;
+import static java.awt.Font.createFont;
+import static java.awt.Font.TRUETYPE_FONT;
+import static java.lang.Character.MAX_CODE_POINT;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+
+
+/** A record of the glyph coverage of the glyph-test font, shared by all file translators
+  * and persisted from one imaging command to the next.  It tells whether the font has a glyph
+  * for a code point by a bit lookup, consulting `Font.canDisplay` only for code points it has yet
+  * to record.  The record is stored in the boundary-path directory under the file name
+  * `{@value #fileName}`, keyed by a content hash of the font file, such that any change
+  * to the font voids it.
+  *
+  * <p>Methods `fontName`, `hasGlyph` and `hasGlyphsASCII` are thread safe.</p>
+  *
+  *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#glyph-test-f,glyph-test-f,path'>
+  *         Command option `-glyph-test-font`</a>
+  */
+final class GlyphCoverage {
+
+
+    /** Makes a record with no former entries.
+      *
+      *     @param fontFile The path of the glyph-test font.
+      */
+    GlyphCoverage( final Path fontFile ) {
+        try( final var in = new FileInputStream( fontFile.toFile() )) {
+            font = createFont( TRUETYPE_FONT/*includes all of OpenType*/,
+              /*buffered by callee in JDK 17*/in);
+            fontHash = ContentHashes.hash( fontFile ); }
+        catch( FontFormatException|IOException x ) { throw new Unhandled( x ); }
+        long low = 0L, high = 0L;
+        for( int ch = 0; ch < 0x40; ++ch ) if( font.canDisplay( ch )) low |= 1L << ch;
+        for( int ch = 0x40; ch < 0x80; ++ch ) if( font.canDisplay( ch )) high |= 1L << ch;
+        asciiLow = low;
+        asciiHigh = high; }
+
+
+
+    /** The name of a record file.
+      */
+    static final String fileName = ".Breccia.Web.imager_glyphs";
+
+
+
+    /** The font name of the glyph-test font.
+      */
+    String fontName() { return font.getFontName(); }
+
+
+
+    /** Whether the glyph-test font has a glyph for code point `ch`.
+      */
+    boolean hasGlyph( final int ch ) {
+        final int w = ch >>> 5; // Index of the word that holds the entry of `ch`.
+        final int shift = (ch & 0x1F) << 1;
+        final long entry = bits.get(w) >>> shift & 0b11;
+        if( entry != unrecorded ) return entry == glyphed;
+        final long e;
+        synchronized( font ) { e = font.canDisplay(ch)? glyphed : unglyphed; } // [FTS]
+        final long word = bits.getAndAccumulate( w, e << shift, (a, b) -> a | b ); // [RR]
+        if( (word >>> shift & 0b11) == unrecorded ) hasGained = true;
+        return e == glyphed; }
+
+
+
+    /** Whether the glyph-test font has a glyph for every character of `text`, telling in bulk
+      * where the text is entirely ASCII.  Returns false if the text has any character beyond ASCII,
+      * or any without a glyph, leaving `hasGlyph` to tell which characters are unglyphed.
+      */
+    boolean hasGlyphsASCII( final String text ) {
+        for( int c = 0, cN = text.length(); c < cN; ++c ) {
+            final char ch = text.charAt( c );
+            if( ch >= 0x80 ) return false;
+            if( ((ch < 0x40? asciiLow : asciiHigh) & 1L << ch) == 0L ) return false; }
+        return true; }
+
+
+
+    /** Reads from the given file any record that was formed for the given font file.
+      * A record formed for another font, or an unreadable record, is treated as empty.
+      *
+      *     @param file The path of a record file.
+      *     @param fontFile The path of the glyph-test font.
+      */
+    static GlyphCoverage read( final Path file, final Path fontFile ) {
+        final var g = new GlyphCoverage( fontFile );
+        try( final var in = new DataInputStream( new BufferedInputStream( newInputStream( file )))) {
+            if( in.readInt() != version ) return g;
+            final byte[] hash = new byte[g.fontHash.length];
+            in.readFully( hash );
+            if( !Arrays.equals( hash, g.fontHash )) return g; // The font has changed.
+            final long[] words = new long[g.bits.length()];
+            for( int w = in.readInt(); w > 0; --w ) words[in.readInt()] = in.readLong();
+            for( int w = 0; w < words.length; ++w ) g.bits.set( w, words[w] ); }
+        catch( final NoSuchFileException x ) {} // No record has yet been formed.
+        catch( final IOException|IndexOutOfBoundsException x ) {
+            logger.warning( () -> "Ignoring the unreadable record `" + file + "`: " + x ); } // [LUR]
+        return g; }
+
+
+
+    /** Writes this record to the given file, replacing any file already there
+      * unless its content would be unchanged.  Does nothing if the record has gained no entries
+      * since it was read or last written.
+      */
+    void write( final Path file ) {
+        if( !hasGained ) return;
+        hasGained = false; // Any entries gained from here on are left for the next writing.
+        final Path fileTemp = temporarySibling( file );
+        try( final var out = new DataOutputStream( new BufferedOutputStream(
+              newOutputStream( fileTemp )))) {
+            out.writeInt( version );
+            out.write( fontHash );
+            final int wN = bits.length();
+            int count = 0; // Of words that record any code point, the others being omitted.
+            for( int w = 0; w < wN; ++w ) if( bits.get(w) != 0L ) ++count;
+            out.writeInt( count );
+            for( int w = 0; w < wN; ++w ) {
+                final long word = bits.get( w );
+                if( word == 0L ) continue;
+                out.writeInt( w );
+                out.writeLong( word ); }}
+        catch( final IOException x ) { throw new Unhandled( x ); }
+        replaceIfChanged( file, fileTemp ); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** The glyph coverage of ASCII code points 0x40 to 0x7F, bit `n` telling of code point 0x40 + n.
+      */
+    private final long asciiHigh;
+
+
+
+    /** The glyph coverage of ASCII code points 0 to 0x3F, bit `n` telling of code point `n`.
+      */
+    private final long asciiLow;
+
+
+
+    /** The recorded entries, each of two bits, thirty-two to a word.  An entry is `unrecorded`,
+      * `glyphed` or `unglyphed`.
+      */
+    private final AtomicLongArray bits = new AtomicLongArray( (MAX_CODE_POINT >>> 5) + 1 );
+
+
+
+    private final Font font;
+
+
+
+    /** The content hash of the font file.
+      */
+    private final byte[] fontHash;
+
+
+
+    /** The value of an entry recording a code point for which the font has a glyph.
+      */
+    private static final long glyphed = 0b11;
+
+
+
+    /** Whether the record has gained any entries since it was read or last written.
+      */
+    private volatile boolean hasGained;
+
+
+
+    /** The value of an entry recording a code point for which the font has no glyph.
+      */
+    private static final long unglyphed = 0b01;
+
+
+
+    private static final long unrecorded = 0b00;
+
+
+
+    /** The version of the record file format.
+      */
+    private static final int version = 1; }
+
+
+
+// NOTES
+// ─────
+//   FTS  Font thread safety.  The thread safety of `Font.canDisplay` is undocumented, the method
+//        consulting lazily initialized state of the font, so calls to it are serialized.  Only misses
+//        call it, which are few once the record is filled, so the lock is rarely contended.
+//
+//   LUR  Logging of unexpected yet recoverable IO errors.  See `ImageMould`.
+//
+//   RR · Racing recording.  Threads that race to record the same code point record it alike, and the
+//        bitwise union of their entries is idempotent, so none is lost or corrupted.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
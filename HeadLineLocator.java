@@ -1,10 +1,6 @@
 package Breccia.Web.imager;
 
-import java.util.StringTokenizer;
-import org.w3c.dom.Element;
-
-import static java.lang.Integer.parseUnsignedInt;
-import static Java.Nodes.parentAsElement;
+import Breccia.Web.imager.OffsetIndex.HeadOffsets;
 
 
 final class HeadLineLocator extends Java.TextLineLocator {
@@ -14,13 +10,6 @@ final class HeadLineLocator extends Java.TextLineLocator {
 
 
 
-    /** Locates the line in which the given granum falls.
-      */
-    void locateLine( final Element granum ) {
-      locateLine( parseUnsignedInt( granum.getAttribute( "xunc" )), offsetRegional, numberRegional ); }
-
-
-
     /** Locates the line in which the given offset falls.
       *
       *     @param xunc An offset in UTF-16 code units from the start of a source text.
@@ -34,7 +23,7 @@ final class HeadLineLocator extends Java.TextLineLocator {
 
     /** The ordinal number in the source text of the first line of the present region.
       *
-      *     @see #region(Element)
+      *     @see #region(HeadOffsets)
       */
     int numberRegional() { return numberRegional; }
 
@@ -42,21 +31,19 @@ final class HeadLineLocator extends Java.TextLineLocator {
 
     /** The offset from the start of the source text of the present region in UTF-16 code units.
       *
-      *     @see #region(Element)
+      *     @see #region(HeadOffsets)
       */
     int offsetRegional() { return offsetRegional; }
 
 
 
-    /** Sets from the given head `endsRegional`, `numberRegional` and `offsetRegional`.
+    /** Sets from the offsets of the given head `endsRegional`, `numberRegional` and `offsetRegional`.
       */
-    void region( final Element head ) {
+    void region( final HeadOffsets head ) {
         endsRegional.clear();
-        final StringTokenizer tt = new StringTokenizer( head.getAttribute( "xuncLineEnds" ), " " );
-        while( tt.hasMoreTokens() ) endsRegional.add( parseUnsignedInt( tt.nextToken() ));
-        final Element fractum = parentAsElement( head );
-        offsetRegional = parseUnsignedInt( fractum.getAttribute( "xunc" ));
-        numberRegional = parseUnsignedInt( fractum.getAttribute( "lineNumber" )); }
+        for( final int end: head.lineEnds() ) endsRegional.add( end );
+        offsetRegional = head.xunc();
+        numberRegional = head.lineNumber(); }
 
 
 
@@ -71,4 +58,4 @@ final class HeadLineLocator extends Java.TextLineLocator {
 
 
 
-                                                        // Copyright © 2022  Michael Allan.  Licence MIT.
+                                                  // Copyright © 2022, 2026  Michael Allan.  Licence MIT.
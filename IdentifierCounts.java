@@ -0,0 +1,111 @@
+package Breccia.Web.imager;
+
+import static java.util.Arrays.fill;
+
+
+/** A count of the occurrences of each base identifier in an image file.  It maps identifiers
+  * to counts by open addressing over primitive arrays, looking up each identifier by its character
+  * content, such that a repeat occurrence costs neither a `String` nor a boxed count.
+  */
+final class IdentifierCounts {
+
+
+    /** @param capacity The number of identifiers to allow for before any growth.
+      */
+    IdentifierCounts( final int capacity ) {
+        int n = 0x10; // Table size, a power of two to allow masking in place of modulo division.
+        while( n < capacity << 1 ) n <<= 1; // Keeping the load factor at or below one half.
+        allocate( n ); }
+
+
+
+    /** Removes all identifiers, ready for the next image file.
+      */
+    void clear() {
+        if( size == 0 ) return;
+        fill( keys, null );
+        size = 0; }
+
+
+
+    /** Counts an occurrence of the identifier comprising the content of `b`.
+      *
+      *     @return The resulting count of its occurrences, which is 1 for a first occurrence.
+      */
+    int increment( final CharSequence b ) {
+        final int hash = hash( b );
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        for( String k; (k = keys[i]) != null; i = (i + 1) & mask ) { // Probing linearly.
+            if( hashes[i] == hash && contentEquals( k, b )) return ++counts[i]; }
+        keys[i] = b.toString();
+        hashes[i] = hash;
+        counts[i] = 1;
+        if( ++size << 1 > keys.length ) grow();
+        return 1; }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private void allocate( final int n ) {
+        keys = new String[n];
+        hashes = new int[n];
+        counts = new int[n]; }
+
+
+
+    private static boolean contentEquals( final String k, final CharSequence b ) {
+        final int cN = k.length();
+        if( b.length() != cN ) return false;
+        for( int c = 0; c < cN; ++c ) if( k.charAt(c) != b.charAt(c) ) return false;
+        return true; }
+
+
+
+    private int[] counts;
+
+
+
+    /** Doubles the size of the table.
+      */
+    private void grow() {
+        final String[] kk = keys;
+        final int[] hh = hashes;
+        final int[] cc = counts;
+        allocate( kk.length << 1 );
+        final int mask = keys.length - 1;
+        for( int j = 0; j < kk.length; ++j ) {
+            if( kk[j] == null ) continue;
+            int i = hh[j] & mask;
+            while( keys[i] != null ) i = (i + 1) & mask;
+            keys[i] = kk[j];
+            hashes[i] = hh[j];
+            counts[i] = cc[j]; }}
+
+
+
+    /** The hash of `b`, spread such that its low bits (which alone index the table) depend
+      * on all of its bits.
+      */
+    private static int hash( final CharSequence b ) {
+        int h = 0;
+        for( int c = 0, cN = b.length(); c < cN; ++c ) h = 31 * h + b.charAt( c );
+        return h ^ (h >>> 16); }
+
+
+
+    private int[] hashes;
+
+
+
+    private String[] keys;
+
+
+
+    private int size; }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -2,11 +2,12 @@ package Breccia.Web.imager;
 
 
 /** @param sourceText The original source text from which the image file was formed.
+  *   It is either a string or, for a record reloaded from a spill file, a `StoredText` view.
   * @param fracta A linear-order array of the body fracta of the image file.
+  *     @see ImageFileStore
   */
-record ImageFile( String sourceText, ImagedBodyFractum[] fracta ) {}
-  // Re `sourceText`, this will not scale.  OPT
+record ImageFile( CharSequence sourceText, ImagedBodyFractum[] fracta ) {}
 
 
 
-                                                        // Copyright © 2022  Michael Allan.  Licence MIT.
+                                                  // Copyright © 2022, 2026  Michael Allan.  Licence MIT.
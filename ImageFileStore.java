@@ -0,0 +1,294 @@
+package Breccia.Web.imager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import Java.Unhandled;
+import Java.UnsourcedInterrupt;
+
+import static Breccia.Web.imager.ImageMould.unchecked;
+import static Breccia.Web.imager.Project.logger;
+import static Java.Hashing.initialCapacity;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.newOutputStream;
+
+
+/** A store of records of image files, bounded in its use of the heap.  It holds resident in memory
+  * the records most recently used, up to a budget.  Beyond the budget it evicts the least recently
+  * used, first spilling each to a temporary file from which it may later be reloaded on demand.
+  * Spilling is done outside of any lock, so never stalling other users of the store.
+  * A reloaded record is memory mapped, its source text read directly from the spill file
+  * by way of a `StoredText` view.  The form of a spill file is that of `FractaIndex.encode`,
+  * which (unlike a fracta index) includes the source text.  All methods of this class
+  * are thread safe.
+  *
+  *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#record-budge,record-budge'>
+  *         Command option `-record-budget`</a>
+  */
+final class ImageFileStore {
+
+
+    /** @param budget The budget in bytes, a bound on the sum of the weights of resident records.
+      */
+    ImageFileStore( final long budget ) { this.budget = budget; }
+
+
+
+    /** Returns a record of the given image file, first forming and storing one by way of `recorder`
+      * if none is stored.  Concurrent calls for the same image file share a single formation
+      * of its record, that of the first call.
+      *
+      *     @param imageFile The absolute, normalized path of an image file.
+      *     @param recorder The means of forming a record of the image file.
+      *       It is called at most once per image file, and in the calling thread.
+      */
+    ImageFile get( final Path imageFile, final Function<Path,ImageFile> recorder ) {
+        final FutureTask<ImageFile> formation;
+        final boolean isSpilled;
+        boolean toForm = false;
+        synchronized( this ) {
+            final Resident r = residents.get( imageFile );
+            if( r != null ) return r.rec;
+            final ImageFile rSpilling = spilling.get( imageFile );
+            if( rSpilling != null ) return rSpilling; // Evicted, its spill yet in progress.
+            final Path spill = spills.get( imageFile );
+            isSpilled = spill != null;
+            FutureTask<ImageFile> f = formations.get( imageFile );
+            if( f == null ) {
+                f = new FutureTask<ImageFile>( isSpilled ? () -> reload( spill )
+                                                         : () -> recorder.apply( imageFile ));
+                formations.put( imageFile, f );
+                toForm = true; }
+            formation = f; }
+        if( toForm ) {
+            formation.run(); // Forming the record in the present thread.
+            final ImageFile rec;
+            try { rec = formation.get(); }
+            catch( final InterruptedException x ) { throw new Unhandled( x ); } // Unexpected when done.
+            catch( final ExecutionException x ) { throw unchecked( x ); } /* Leaving the failed
+              formation in place, that later calls may fail alike. */
+            final List<Evictee> evictees;
+            synchronized( this ) {
+                formations.remove( imageFile );
+                evictees = admit( imageFile, rec, isSpilled ); }
+            spill( evictees );
+            return rec; }
+        try { return formation.get(); }
+        catch( final InterruptedException x ) {
+            Thread.currentThread().interrupt(); // Avoid hiding the fact of interruption.
+            throw new UnsourcedInterrupt( x ); }
+        catch( final ExecutionException x ) { throw unchecked( x ); }}
+
+
+
+    /** Stores a record of the given image file, replacing any already stored.
+      *
+      *     @param imageFile The absolute, normalized path of an image file.
+      */
+    void put( final Path imageFile, final ImageFile rec ) {
+        final Path spillObsolete;
+        final List<Evictee> evictees;
+        synchronized( this ) {
+            spillObsolete = spills.remove( imageFile );
+            spilling.remove( imageFile ); // Obsolete too, any spill in progress.
+            evictees = admit( imageFile, rec, /*isSpilled*/false ); }
+        if( spillObsolete != null ) delete( spillObsolete );
+        spill( evictees ); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Makes the given record resident, then evicts whatever records exceed the budget.
+      * Call while synchronized on this store, then call `spill` on the return value
+      * after releasing the lock.
+      *
+      *     @param isSpilled Whether the record is already spilled.
+      *     @return The evicted records that yet need spilling, each now entered in `spilling`.
+      */
+    private List<Evictee> admit( final Path imageFile, final ImageFile rec, final boolean isSpilled ) {
+        final Resident r = new Resident( rec, weightOf(rec), isSpilled );
+        final Resident rOld = residents.put( imageFile, r );
+        if( rOld != null ) weightResident -= rOld.weight;
+        weightResident += r.weight;
+        List<Evictee> evictees = List.of();
+        final Iterator<Map.Entry<Path,Resident>> rr = residents.entrySet().iterator();
+        while( weightResident > budget && residents.size() > 1 ) { // Leaving at least the newest.
+            final Map.Entry<Path,Resident> eldest = rr.next();
+            final Resident e = eldest.getValue();
+            if( !e.isSpilled ) {
+                if( evictees.isEmpty() ) evictees = new ArrayList<>();
+                evictees.add( new Evictee( eldest.getKey(), e.rec ));
+                spilling.put( eldest.getKey(), e.rec ); }
+            rr.remove();
+            weightResident -= e.weight; }
+        return evictees; }
+
+
+
+    private final long budget;
+
+
+
+    /** Deletes the given spill file or directory, logging any failure.
+      */
+    private static void delete( final Path spill ) {
+        try { deleteIfExists( spill ); }
+        catch( final IOException x ) {
+            logger.warning( () -> "Unable to delete `" + spill + "`: " + x ); }} // [LUR]
+
+
+
+    /** Deletes every spill file together with their directory.  Called at shutdown.
+      */
+    private void deleteSpills() {
+        final Path directory;
+        final ArrayList<Path> files;
+        synchronized( this ) {
+            isClosed = true; // Barring any further spill files.
+            directory = spillDirectory;
+            files = new ArrayList<>( spills.values() );
+            spills.clear(); }
+        for( final Path f: files ) delete( f );
+        if( directory != null ) delete( directory ); }
+
+
+
+    /** Image files (keys) mapped each to the formation of its record (value), while in progress
+      * or failed.  Access only while synchronized on this store.
+      */
+    private final Map<Path,FutureTask<ImageFile>> formations = new HashMap<>();
+
+
+
+    /** Whether spill files are deleted and no more may be kept.  Access only while synchronized
+      * on this store.
+      */
+    private boolean isClosed;
+
+
+
+    /** Reloads a record from its spill file.
+      */
+    private static ImageFile reload( final Path spill ) {
+        try( final FileChannel ch = FileChannel.open( spill )) {
+            return FractaIndex.decode( ch.map( READ_ONLY, 0, ch.size() )); } // Mapping outlives `ch`.
+        catch( final IOException x ) { throw new Unhandled( x ); }}
+
+
+
+    /** Image files (keys) mapped each to its resident record (value), in order of least recent use.
+      * Access only while synchronized on this store.
+      */
+    private final LinkedHashMap<Path,Resident> residents = new LinkedHashMap<>(
+      initialCapacity( 0x1000 ), /*load factor*/0.75f, /*access order*/true ); // = 4096
+
+
+
+    /** Writes each of the given evicted records to a new spill file, then enters the file
+      * in `spills`, unless meanwhile the record has been replaced.  Call without synchronizing
+      * on this store.
+      *
+      *     @see #admit(Path,ImageFile,boolean)
+      */
+    private void spill( final List<Evictee> evictees ) {
+        for( final Evictee e: evictees ) {
+            final Path file;
+            try {
+                file = createTempFile( spillDirectory(), null, null );
+                try( final var out = new DataOutputStream( new BufferedOutputStream(
+                      newOutputStream( file )))) {
+                    FractaIndex.encode( e.rec, out ); }}
+            catch( final IOException x ) { throw new Unhandled( x ); }
+            final boolean isKept;
+            synchronized( this ) {
+                isKept = spilling.get(e.imageFile) == e.rec && !isClosed;
+                if( isKept ) {
+                    spilling.remove( e.imageFile );
+                    spills.put( e.imageFile, file ); }}
+            if( !isKept ) delete( file ); }} // Obsolete already.
+
+
+
+    /** Returns the directory of spill files, first making it if need be.
+      */
+    private synchronized Path spillDirectory() throws IOException {
+        if( spillDirectory == null ) {
+            spillDirectory = createTempDirectory( "Breccia.Web.imager_" );
+            Runtime.getRuntime().addShutdownHook( new Thread( this::deleteSpills )); }
+        return spillDirectory; }
+
+
+
+    /** The directory of spill files, or null if none is yet made.  Access only while synchronized
+      * on this store.
+      */
+    private Path spillDirectory;
+
+
+
+    /** Image files (keys) mapped each to its evicted record (value) while the record is being spilled.
+      * Access only while synchronized on this store.
+      */
+    private final Map<Path,ImageFile> spilling = new HashMap<>();
+
+
+
+    /** Image files (keys) mapped each to the spill file of its record (value).
+      * Access only while synchronized on this store.
+      */
+    private final Map<Path,Path> spills = new HashMap<>();
+
+
+
+    /** The sum of the weights of the resident records.
+      */
+    private long weightResident;
+
+
+
+    /** Returns an estimate of the memory footprint of the given record in bytes,
+      * a generous one for any record whose source text is memory mapped.
+      */
+    private static long weightOf( final ImageFile rec ) {
+        return 0x40L/*= 64*/ * (1 + rec.fracta().length) + 2L * rec.sourceText().length(); }
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** An evicted record that yet needs spilling.
+      */
+    private static record Evictee( Path imageFile, ImageFile rec ) {}
+
+
+
+    /** @param isSpilled Whether the record has a spill file, such that eviction may simply drop it.
+      */
+    private static record Resident( ImageFile rec, long weight, boolean isSpilled ) {}}
+
+
+
+// NOTES
+// ─────
+//   LUR  Logging of unexpected yet recoverable IO errors.  See `ImageMould`.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -5,21 +5,36 @@ import Java.*;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeoutException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
 
 import static Breccia.Web.imager.ErrorAtFile.errHead;
 import static Breccia.Web.imager.ErrorAtFile.wrnHead;
@@ -42,11 +57,13 @@ import static java.nio.file.Files.isDirectory;
 import static java.nio.file.Files.isReadable;
 import static java.nio.file.Files.isRegularFile;
 import static java.nio.file.Files.isWritable;
-import static java.nio.file.Files.list;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAttributes;
 import static Java.Paths.to_URI_relativePathReference;
 import static Java.StringBuilding.clear;
 import static Java.URI_References.isRemote;
 import static Java.URIs.unfragmented;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.logging.Level.FINER;
 
@@ -61,36 +78,66 @@ public final class ImageMould<C extends ReusableCursor> {
     /** Partly makes a mould for `initialize` to finish.
       *
       *     @see #boundaryPath
-      *     @see #outputDirectory
+      *     @param outputDirectory The {@linkplain #outputDirectory output directory},
+      *       or null to write in place, to the boundary-path directory.
       *     @param errorWriter Where to report any warnings or survivable errors that occur
       *       during image formation.
       *     @throws IllegalArgumentException If `boundaryPath` is relative or non-existent.
-      *     @throws IllegalArgumentException If `outputDirectory` is not an empty directory.
+      *     @throws IllegalArgumentException If `outputDirectory` is neither null,
+      *       nor the boundary-path directory, nor an empty directory.
       */
-    public ImageMould( final Path boundaryPath, ImagingOptions opt, final Path outputDirectory,
+    public ImageMould( final Path boundaryPath, ImagingOptions opt, Path outputDirectory,
           final PrintWriter errorWriter ) {
         /* Sanity tests */ {
             Path p = boundaryPath;
             if( !exists( p )) throw new IllegalArgumentException( "No such file or directory: " + p );
             if( !p.isAbsolute() ) throw new IllegalArgumentException( "Not an absolute path: " + p );
             if( !p.equals( p.normalize() )) {
-                throw new IllegalArgumentException( "Not a normalized path: " + p ); }
+                throw new IllegalArgumentException( "Not a normalized path: " + p ); }}
+        boundaryPathDirectory = isDirectory(boundaryPath)?  boundaryPath : boundaryPath.getParent();
+        if( outputDirectory == null ) outputDirectory = boundaryPathDirectory;
+        else if( !outputDirectory.equals( boundaryPathDirectory )) { // Then it must be empty.
+            final Path p = outputDirectory;
             try {
-                if( !( isDirectory(p = outputDirectory) && isDirectoryEmpty(p) )) {
+                if( !( isDirectory(p) && isDirectoryEmpty(p) )) {
                     throw new IllegalArgumentException( "Not an empty directory: " + p ); }}
             catch( IOException x ) { throw new Unhandled( x ); }}
-        boundaryPathDirectory = isDirectory(boundaryPath)?  boundaryPath : boundaryPath.getParent();
         this.boundaryPath = boundaryPath;
         this.opt = opt;
         this.outputDirectory = outputDirectory;
-        this.errorWriter = errorWriter; }
+        this.errorWriter = errorWriter;
+        patternCache = new PatternCache( 0x1000/*= 4096*/, opt.toMatchLinearly() );
+        imageFilesLocal = new ImageFileStore( (long)opt.recordBudget() << 20 ); } // MiB → bytes.
 
 
 
+    /** Finishes making this mould for a single file translator, regardless of option `-threads`.
+      * Call once only, and only if `initialize(FileTranslator.Maker)` is not called.
+      */
     public void initialize( final FileTranslator<C> translator ) { this.translator = translator; }
 
 
 
+    /** Finishes making this mould, giving it one file translator for each thread allowed by option
+      * `-threads`.  Call once only, and only if `initialize(FileTranslator)` is not called.
+      *
+      *     @see ImagingOptions#threads()
+      */
+    public void initialize( final FileTranslator.Maker<C> tMaker ) {
+        final int tN = opt.threads();
+        if( tN == 1 ) {
+            initialize( tMaker.newTranslator( ImageMould.this ));
+            return; }
+        translators = new ArrayBlockingQueue<>( tN );
+        for( int t = 0; t < tN; ++t ) translators.add( tMaker.newTranslator( ImageMould.this ));
+        translator = translators.peek(); // Serving also the single-threaded parts of image formation.
+        executor = newFixedThreadPool( tN, runnable -> {
+            final Thread thread = new Thread( runnable, "Imaging thread" );
+            thread.setDaemon( true );
+            return thread; }); }
+
+
+
     /** The topmost path of the Web image, which defines its bounds.  It is absolute and normalized.
       * It comprises or contains the Breccian source files of the image, each accompanied
       * by any previously formed image file, a sibling namesake with a `.xht` extension.
@@ -115,12 +162,14 @@ public final class ImageMould<C extends ReusableCursor> {
       * <p>The reporting of errors should be coded such that uncorrected errors
       * repeat with each imaging command.  No such stipulation applies to warnings.</p>
       *
+      * <p>This method is thread safe.</p>
+      *
       *     @see #out(int)
       *     @see #wrn()
       */
     public PrintWriter err() {
         hasFailed = true;
-        return errorWriter; }
+        return wrn(); }
 
 
 
@@ -186,10 +235,32 @@ public final class ImageMould<C extends ReusableCursor> {
       // 1. Pull in the source files, sorting them as apodictically imageable or indeterminate  [PSF]
       // ═══════════════════════════
         if( isDirectory( boundaryPath )) {
+            manifest = ImagingManifest.read( boundaryPath.resolve( ImagingManifest.fileName ),
+              manifestFingerprint() );
+            if( opt.toHashCheck() ) {
+                hashes = ContentHashes.read( boundaryPath.resolve( ContentHashes.fileName )); }
+            if( !opt.glyphTestFont().equals( "none" )) {
+                glyphCoverage = GlyphCoverage.read( boundaryPath.resolve( GlyphCoverage.fileName ),
+                  Path.of( opt.glyphTestFont() )); }
             out(1).println( "Collating source files" );
-            pullDirectory( boundaryPath );
+            final var pull = new DirectoryPull( boundaryPath );
+            final var pool = new ForkJoinPool( opt.threads() );
+            try { pool.invoke( pull ); }
+            finally { pool.shutdown(); }
+            pull.collate();
+            pull.issueReports();
             out(1).println( "  " + imageabilityDeterminations.size() + " collated" ); }
-        else pullFile( boundaryPath );
+        else {
+            manifest = new ImagingManifest( boundaryPathDirectory, /*fingerprint*/"" ); /* Unpersisted,
+              lest it supplant the manifest of the whole directory, which might yet be imaged. */
+            if( opt.toHashCheck() ) hashes = new ContentHashes( boundaryPathDirectory ); // Likewise.
+            if( !opt.glyphTestFont().equals( "none" )) {
+                glyphCoverage = new GlyphCoverage( Path.of( opt.glyphTestFont() )); } // Likewise.
+            final Path f = boundaryPath;
+            final BasicFileAttributes a = attributes( f );
+            if( a != null && looksBrecciaLike( f )) {
+                imageabilityDeterminations.put( f, new ImageabilityReference(
+                  pullFile( f, a, attributes( imageSibling( f ))))); }}
         // Now `imageabilityDeterminations` is structurally complete.  Newly started threads
         // may safely use it for all but structural modification.
 
@@ -198,9 +269,10 @@ public final class ImageMould<C extends ReusableCursor> {
       // 2. Begin reducing the indeterminates, determining the imageability of each
       // ════════════════════════════════════
         if( opt.verbosity() >= 1 ) {
-            int c = 0; // Count of indeterminates.
+            int c = 0; // Count of source files that lack a valid manifest entry.
             for( final var det: imageabilityDeterminations.entrySet() ) {
-                if( det.getValue().get() == indeterminate ) ++c; }
+                if( det.getValue().get() == unimageable ) continue;
+                if( manifest.entry( det.getKey() ) == null ) ++c; }
             if( c > 0 )  out(1).println( "Parsing source files: " + c ); }
         imageabilityDeterminations.forEach( this::formalResources_recordFrom ); // Collate the resources.
         // Now `formalResources` is structurally complete.  Newly started threads
@@ -225,7 +297,9 @@ public final class ImageMould<C extends ReusableCursor> {
         final Phaser barrier = new Phaser();
         final Map<String,RemoteChangeProbe> probes = new HashMap<>( initialCapacity( 0x100 )); // = 256
           // Network hosts (keys) mapped each to its assigned probe (value).
-        formalResources.remote.keySet().forEach( res -> // Ensure a probe is assigned, if called for.
+        formalResources.remote.forEach( (res, dependants) -> { // Ensure a probe is assigned,
+            if( dependants.stream().noneMatch( dep -> // if called for, viz. if a dependant awaits it.
+              imageabilityDeterminations.get(dep).get() == indeterminate )) return;
             probes.computeIfAbsent( res.getHost(), host -> {
                 final var probe = new RemoteChangeProbe( host, ImageMould.this );
                 barrier.register();
@@ -235,7 +309,7 @@ public final class ImageMould<C extends ReusableCursor> {
                         barrier.arrive(); }};
                 thread.setDaemon( true );
                 thread.start();
-                return probe; }));
+                return probe; }); });
 
       // Probe the local resources
       // ─────────────────────────
@@ -265,6 +339,8 @@ public final class ImageMould<C extends ReusableCursor> {
                         logger.warning( () ->
                           "Forcefully reimaging the source file, the timestamp of its image `"
                           + depImage + "` being unreadable: " + x ); }} // [LUR]
+                if( toReformImage && hashes != null && hashes.isUnchanged(res) ) {
+                    toReformImage = false; } // The change being to the timestamp alone.
                 if( toReformImage ) depImageability.set( imageable ); }); });
 
 
@@ -279,27 +355,7 @@ public final class ImageMould<C extends ReusableCursor> {
         final ArrayList<Path> files = new ArrayList<>( // List of translated source files.
           /*initial capacity*/0x1000 ); // = 4096
         for( ;; ) {
-            int c = 0; // Count of imageables found during the present pass.
-
-          // Translate any imageables now determined, so forming part of the image
-          // ────────────────────────
-            for( final var det: imageabilityDeterminations.entrySet() ) {
-                final ImageabilityReference iR = det.getValue();
-                if( iR.get() != imageable ) continue;
-                ++c;
-                final Path sourceFile = det.getKey();
-                final Path sourceFileRelative = boundaryPathDirectory.relativize( sourceFile );
-                boolean wasTranslated = false;
-                try {
-                    translator.translate( sourceFile,
-                      outputDirectory.resolve(sourceFileRelative).getParent() );
-                    wasTranslated = true; }
-                catch( final ParseError x ) { flag( sourceFile, x ); }
-                catch( final ErrorAtFile x ) { flag( x ); }
-                if( wasTranslated ) {
-                    files.add( sourceFileRelative );
-                    iR.set( imaged ); }
-                else iR.set( unimageable ); }
+            final int c = translateImageables( files ); // Count of imageables found during this pass.
             if( isFinalPass ) break;
             if( c > 0 ) continue; // One good turn deserves another by making it likelier.
 
@@ -311,32 +367,14 @@ public final class ImageMould<C extends ReusableCursor> {
                 throw new UnsourcedInterrupt( x ); }
             catch( TimeoutException x ) { continue; } // Reduction is ongoing.
             isFinalPass = true; } // Reduction is complete, the next pass is final.
-        if( files.size() != countExpected  ||  countExpected != 0  &&  opt.verbosity() >= 2 ) {
-            out(1).println( "  " + files.size() + " translated" );
-            if( opt.verbosity() >= 2 ) for( final Path f: files ) out(2).println( "    ↶ " + f ); }
+        reportTranslated( files, countExpected );
 
 
       // ═════════════════════════
       // 4. Finish the image files
       // ═════════════════════════
-        countExpected = 0;
-        if( opt.verbosity() >= 1 ) {
-            for( final var det: imageabilityDeterminations.entrySet() ) {
-                if( det.getValue().get() == imaged ) ++countExpected; }
-            if( countExpected != 0 ) out(1).println( "Finishing image files: " + countExpected ); }
-        files.clear(); // List of finished image files.
-        for( final var det: imageabilityDeterminations.entrySet() ) {
-            final ImageabilityReference iR = det.getValue();
-            if( iR.get() != imaged ) continue;
-            final Path sourceFile = det.getKey();
-            final Path imageFileRelative = imageSibling( boundaryPathDirectory.relativize( sourceFile ));
-            try {
-                translator.finish( sourceFile, outputDirectory.resolve( imageFileRelative ));
-                files.add( imageFileRelative ); }
-            catch( final ErrorAtFile x ) { flag( x ); }}
-        if( files.size() != countExpected  ||  countExpected != 0  &&  opt.verbosity() >= 2 ) {
-            out(1).println( "  " + files.size() + " finished" );
-            if( opt.verbosity() >= 2 ) for( final Path f: files ) out(2).println( "    → " + f ); }
+        finishImageFiles();
+        writeRecords();
         return !hasFailed; }
 
 
@@ -363,10 +401,11 @@ public final class ImageMould<C extends ReusableCursor> {
       *       from the original reference given in source.
       *     @param c The zero-based offset in `ref` of the character whose column to mark.
       *       It will be used only if `isAlteredRef`. *//*
+      *     @paramImplied #gcc
       *     @paramImplied #stringBuilder2
       */
-    public String markedLine( final String ref, final CharacterPointer p, final boolean isAlteredRef,
-          final int c ) {
+    public synchronized String markedLine( final String ref, final CharacterPointer p,
+          final boolean isAlteredRef, final int c ) {
         final StringBuilder b = clear( stringBuilder2 );
         if( isAlteredRef ) {
             b.append( IntralineCharacterPointer.markedLine( "      ", ref, c, gcc ));
@@ -396,7 +435,63 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
-    /** The directory in which to write any newly formed image files.
+    /** Reforms any files of the image that are outdated by changes to the given files, writing each
+      * to the {@linkplain #outputDirectory output directory}.  Formal resources are considered only
+      * insofar as they are local and among the given files.  Call only after `formImage`, and only
+      * after the output directory (unless it is the boundary-path directory) is emptied of the files
+      * that it last wrote there.
+      *
+      *     @param changed The absolute, normalized paths of files that were created, modified
+      *       or deleted since the image was last formed or reformed.
+      *     @return True on success; false if a survivable error was reported to the error stream
+      *       given in the constructor, in which case the image may be incomplete.
+      */
+    public boolean reformImage( final Set<Path> changed ) {
+        hasFailed = false;
+        warningsIssued.clear(); // Repeating any warnings that remain uncorrected.
+        imageabilityDeterminations.values().forEach( iR -> iR.set( indeterminate )); /* Clearing the
+          final states of the previous formation, so ensuring that only outdated files are reformed. */
+        final Set<Path> toImage = new HashSet<>();
+        for( final Path p: changed ) {
+            if( hashes != null ) hashes.forget( p ); // Its former reading being outdated.
+            final HashSet<Path> dependants = formalResources.local.get( p );
+            if( dependants != null ) toImage.addAll( dependants );
+            if( !p.startsWith( boundaryPath )  ||  !looksBrecciaLike( p )  ||  isExcluded( p )) continue;
+            formalResources.local.values().removeIf( dd -> dd.remove( p ) && dd.isEmpty() );
+            formalResources.remote.values().removeIf( dd -> dd.remove( p ) && dd.isEmpty() );
+              // Forgetting the formal resources of source file `p`, for they may have changed.
+            manifest.remove( p );
+            final BasicFileAttributes a = attributes( p );
+            if( a == null || !a.isRegularFile() ) { // Then `p` is deleted, or no longer a source file.
+                imageabilityDeterminations.remove( p );
+                continue; }
+            manifest.admit( p, a );
+            if( hashes != null ) hashes.admit( p, a );
+            final var iR = new ImageabilityReference( indeterminate );
+            imageabilityDeterminations.put( p, iR );
+            formalResources_recordFrom( p, iR ); // Recording its formal resources anew.
+            toImage.add( p ); }
+        int countExpected = 0;
+        for( final Path f: toImage ) {
+            final ImageabilityReference iR = imageabilityDeterminations.get( f );
+            if( iR == null || iR.get() != indeterminate ) continue; // Excluded, or unimageable.
+            iR.set( imageable );
+            ++countExpected; }
+        if( countExpected != 0 ) out(1).println( "Translating source files: " + countExpected );
+        final ArrayList<Path> files = new ArrayList<>( countExpected ); // Of translated source files.
+        translateImageables( files );
+        reportTranslated( files, countExpected );
+        finishImageFiles();
+        writeRecords();
+        return !hasFailed; }
+
+
+
+    /** The directory in which to write any newly formed image files.  This is either
+      * the boundary-path directory itself, in which case each image file is written in place,
+      * replacing any former one, or else a directory apart, from which the caller may place them.
+      *
+      *     @see #boundaryPathDirectory
       */
     public final Path outputDirectory;
 
@@ -441,37 +536,126 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
+    /** Warns the user of something in `file` at the character of the given pointer,
+      * on condition the warning does not duplicate an earlier one.  The test for duplication
+      * needs neither the pointer nor the message, so a duplicate costs the formation of neither.
+      *
+      *     @param key A description of the warning that, together with `file` and the location
+      *       of `p`, distinguishes it from all others.
+      *     @param message The means of forming the message from the formed pointer.
+      *     @see #wrn()
+      */
+    public void warnOnce( final Path file, final DeferredPointer p, final String key,
+          final Function<CharacterPointer,String> message ) { // [TS]
+        if( !warningsIssued.add( wrnHead(file) + p.xunc + ": " + key )) return;
+        final CharacterPointer q = p.get();
+        wrn().println( wrnHead(file,q.lineNumber) + message.apply( q )); }
+
+
+
     /** Warns the user of something in `file` at the given line number,
       * on condition the warning does not duplicate an earlier one.
       *
       *     @see #wrn()
       */
-    public void warnOnce( final Path file, final int lineNumber, final String message ) {
+    public void warnOnce( final Path file, final int lineNumber, final String message ) { // [TS]
         final String report = wrnHead(file,lineNumber) + message;
         if( warningsIssued.add( report )) wrn().println( report ); }
 
 
 
     /** Where to report any warnings in the process of image formation.
+      * This method is thread safe.
       *
       *     @see #err()
       *     @see #out(int)
       */
-    public PrintWriter wrn() { return errorWriter; }
+    public PrintWriter wrn() {
+        final PrintWriter w = reportWriter.get();
+        return w == null ? errorWriter : w; }
 
 
 
 ////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
 
 
+    /** Returns the basic attributes of the file at path `p`, or null if no such file exists.
+      */
+    private static BasicFileAttributes attributes( final Path p ) {
+        try { return readAttributes( p, BasicFileAttributes.class ); }
+        catch( final NoSuchFileException x ) { return null; }
+        catch( final IOException x ) { throw new Unhandled( x ); }}
+
+
+
+    /** Store of image documents in transit from translation to finishing, which spares the writing
+      * and rereading of interim image files.  Its budget is a quarter of the maximum heap size.
+      */
+    final DocumentHandoff documentHandoff = new DocumentHandoff( Runtime.getRuntime().maxMemory() / 4 );
+
+
+
     private final PrintWriter errorWriter; /* Do not write to it directly through this field.
-      Instead write to it through the wrapper methods `err` and `wrn`. */
+      Instead write to it through the wrapper methods `err` and `wrn`.  The sole exception
+      is `perform`, which releases to it the reports that were held back from other threads. */
 
 
 
-    /** A record of the formal imaging resources of source files whose imageability is initally
-      * indeterminate.  Here ‘formal’ means that the content of the resource determines the form
-      * of the image of the source file that refers to (or otherwise makes use of) that resource.
+    /** The thread pool in which to run file translators, or null if option `-threads` allows
+      * for a single thread only.
+      */
+    private ExecutorService executor;
+
+
+
+    /** The matchers of the `-exclude` patterns proper to the present thread, each thread having its own
+      * in lieu of sharing those of `opt.exclusions`, so sparing `isExcluded` any need to synchronize.
+      *
+      *     @see ImagingOptions#exclusions()
+      */
+    private final ThreadLocal<List<Matcher>> exclusionMatchers = ThreadLocal.withInitial( () ->
+      opt.exclusions().stream().map( m -> m.pattern().matcher( "" )).toList() );
+
+
+
+    /** Finishes the image file of each source file now determined to be imaged.
+      */
+    private void finishImageFiles() {
+        int countExpected = 0;
+        if( opt.verbosity() >= 1 ) {
+            for( final var det: imageabilityDeterminations.entrySet() ) {
+                if( det.getValue().get() == imaged ) ++countExpected; }
+            if( countExpected != 0 ) out(1).println( "Finishing image files: " + countExpected ); }
+        final ArrayList<Path> imageds = new ArrayList<>( /*initial capacity*/0x1000 ); // = 4096
+        for( final var det: imageabilityDeterminations.entrySet() ) {
+            if( det.getValue().get() == imaged ) imageds.add( det.getKey() ); }
+        final boolean[] wereFinished = perform( imageds, (t, sourceFile) -> {
+            try {
+                t.finish( sourceFile, outputDirectory.resolve(
+                  imageSibling( boundaryPathDirectory.relativize( sourceFile ))));
+                return true; }
+            catch( final ErrorAtFile x ) { flag( x ); }
+            return false; });
+        final ArrayList<Path> files = new ArrayList<>( imageds.size() ); // List of finished image files.
+        for( int i = 0, iN = imageds.size(); i < iN; ++i ) {
+            if( wereFinished[i] ) {
+                files.add( imageSibling( boundaryPathDirectory.relativize( imageds.get( i )))); }}
+        if( files.size() != countExpected  ||  countExpected != 0  &&  opt.verbosity() >= 2 ) {
+            out(1).println( "  " + files.size() + " finished" );
+            if( opt.verbosity() >= 2 ) for( final Path f: files ) out(2).println( "    → " + f ); }
+        if( opt.verbosity() >= 2 ) {
+            final long hits = patternCache.hits();
+            final long misses = patternCache.misses();
+            if( hits + misses != 0 ) {
+                out(2).println( "  Pattern cache: " + hits + " hits, " + misses + " misses" ); }}}
+
+
+
+    /** A record of the formal imaging resources of all source files not determined unimageable,
+      * whether or not their imageability is initially indeterminate, such that a later change
+      * to a resource (as under option `-watch`) may be traced to every dependant.  Here ‘formal’
+      * means that the content of the resource determines the form of the image of the source file
+      * that refers to (or otherwise makes use of) that resource.
       */
     final ExternalResources formalResources = new ExternalResources();
 
@@ -495,8 +679,8 @@ public final class ImageMould<C extends ReusableCursor> {
             catch( final URISyntaxException x ) {
                 final int c = isAlteredRef ? 0/*guaranteed within bounds of the unaltered `gRef`*/
                   : zeroBased( x.getIndex() );
-                final CharacterPointer p = gRef.characterPointer( c );
-                warnOnce( f, p, message( sRef, x, p,isAlteredRef ));
+                warnOnce( f, new DeferredPointer( gRef.xunc() + c, () -> gRef.characterPointer(c) ),
+                  messageKey( sRef, x ), p -> message( sRef, x, p, isAlteredRef ));
                 return false; }} // Without mapping ∵ `x` leaves the intended resource unclear.
 
       // remote  [RC]
@@ -510,7 +694,9 @@ public final class ImageMould<C extends ReusableCursor> {
                 pendingWarnings.add( new Warning( p.lineNumber, bMessage.toString(),
                   /*when private*/null, null, gRef.xuncFractalDescent() ));
                 return false; } // Without mapping ∵ `formalResources.remote` forbids improbeables.
-            map( formalResources.remote, /*resource*/unfragmented(uRef).normalize(), /*dependant*/f ); }
+            final URI resource = unfragmented(uRef).normalize();
+            map( formalResources.remote, resource, /*dependant*/f );
+            manifestRemote.add( resource ); }
 
       // local  [RC]
       // ┈┈┈┈┈
@@ -519,8 +705,9 @@ public final class ImageMould<C extends ReusableCursor> {
             final Path pRef; { // The reference parsed and resolved as a local file path.
                 try { pRef = f.resolveSibling( toPath( uRef, f )); }
                 catch( final IllegalArgumentException x ) {
-                    final CharacterPointer p = gRef.characterPointer();
-                    warnOnce( f, p, x.getMessage() + '\n' + markedLine(sRef,p,isAlteredRef) );
+                    warnOnce( f, new DeferredPointer( gRef.xunc(), () -> gRef.characterPointer() ),
+                      x.getMessage() + ": " + sRef, p -> x.getMessage() + '\n'
+                      + markedLine( sRef, p, isAlteredRef ));
                     return false; }} // Without mapping ∵ `x` leaves the intended resource unclear.
             if( !exists( pRef )) {
                 final StringBuilder bMessage = clear( stringBuilder );
@@ -544,21 +731,37 @@ public final class ImageMould<C extends ReusableCursor> {
                 pendingWarnings.add( new Warning( p.lineNumber, bMessage.toString(),
                   bMessageWhenPrivate.toString(), level, gRef.xuncFractalDescent() ));
                 return false; } // Without mapping ∵ `formalResources.local` forbids broken references.
-            map( formalResources.local, /*resource*/pRef.normalize(), /*dependant*/f ); }
+            final Path resource = pRef.normalize();
+            map( formalResources.local, resource, /*dependant*/f );
+            manifestLocal.add( resource ); }
         return true; }
 
 
 
-    /** Records all formal resources of source file `f`, provided `f` is of indeterminate imageability;
-      * otherwise does nothing.
+    /** Records all formal resources of source file `f`, unless `f` is determined unimageable,
+      * in which case does nothing.  Records them from the manifest if it has a valid entry for `f`,
+      * otherwise parses `f` and records them in the manifest too, if possible.
       *
       *     @see #formalResources
       *     @param f The path of a source file.
       *     @param iR The present imageability determination of `f`.
       */
     private void formalResources_recordFrom( final Path f, final ImageabilityReference iR ) {
-        if( iR.get() != indeterminate ) return;
+        if( iR.get() == unimageable ) return;
+        manifest: {
+            final ImagingManifest.Entry e = manifest.entry( f );
+            if( e == null ) break manifest;
+            for( final Path res: e.local() ) {
+                if( !exists( res )) { // Then the entry is no longer valid.
+                    manifest.remove( f );
+                    break manifest; }}
+            for( final Path res: e.local() ) map( formalResources.local, res, /*dependant*/f );
+            for( final URI res: e.remote() ) map( formalResources.remote, res, /*dependant*/f );
+            return; } // Without parsing `f`.
         pendingWarnings.clear();
+        manifestLocal.clear();
+        manifestRemote.clear();
+        isManifestable = true;
         final C in = translator.sourceCursor();
         try {
             in.perStateConditionally( f, state -> {
@@ -575,8 +778,10 @@ public final class ImageMould<C extends ReusableCursor> {
                 final String sRef = translate( sRefOriginal, f );
                   // Applying any `-reference-mapping` translations.
                 final boolean isAlteredRef = !sRef.equals( sRefOriginal );
-                if( !formalResources_record( f, gRef, sRef, isAlteredRef )  &&  isAlteredRef ) {
-                    formalResources_record( f, gRef, sRefOriginal, /*isAlteredRef*/false ); } /*
+                if( !formalResources_record( f, gRef, sRef, isAlteredRef )) {
+                    isManifestable = false; // The reference having given cause to warn the user.
+                    if( isAlteredRef ) {
+                        formalResources_record( f, gRef, sRefOriginal, /*isAlteredRef*/false ); }} /*
                       Falling back to `sRefOriginal` (assuming it is equivalent for the purpose);
                       so verifying that at least *it* gets recorded, else warning the user. */
                 return /*to continue parsing*/true; });
@@ -585,6 +790,8 @@ public final class ImageMould<C extends ReusableCursor> {
             flag( f, x );
             iR.set( unimageable );
             return; }
+        if( isManifestable  &&  iR.get() != unimageable ) {
+            manifest.record( f, manifestLocal, manifestRemote ); }
         for( final Warning w: pendingWarnings ) {
             final boolean isPrivate = in.isPrivatized( w.xuncFractalDescent );
             final String m = isPrivate ? w.messageWhenPrivate : w.message;
@@ -594,40 +801,93 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
-    final GraphemeClusterCounter gcc = new GraphemeClusterCounter();
+    final GraphemeClusterCounter gcc = new GraphemeClusterCounter(); /* Not thread safe.  Use it only
+      while synchronized on the mould.  Translators, which may run in threads of their own,
+      have each their own counter. */
+
+
+
+    /** Record of the glyph coverage of the glyph-test font, shared by all translators,
+      * or null if option `-glyph-test-font` is `none`.
+      */
+    GlyphCoverage glyphCoverage; // Do not modify after `formImage` reads it.
 
 
 
-    private boolean hasFailed;
+    private volatile boolean hasFailed;
 
 
 
-    /** Source files (keys) mapped each to the present state of its imageability determination (value).
-      * The map is thread safe on condition of no concurrent structural modification,
-      * structural modification being defined as for `{@linkplain HashMap HashMap}`.
+    /** Record of the content hashes of source files and their formal resources,
+      * or null if option `-hash-check` is not in effect.
+      */
+    private ContentHashes hashes; // Do not modify after `formImage` reads it.
+
+
+
+    /** Source files (keys) mapped each to the present state of its imageability determination (value),
+      * in the order of their pulling into the mould.  Structural modification of the map is confined
+      * to the thread that forms or reforms the image; other threads may read it concurrently
+      * only while it is structurally unmodified, as they do during translation.
       *
       */ @Async // See `start` of remote probe threads in `formImage`.
-    final Map<Path,ImageabilityReference> imageabilityDeterminations = new HashMap<>(
+    final Map<Path,ImageabilityReference> imageabilityDeterminations = new LinkedHashMap<>(
       initialCapacity( 0x2000/*source files*/ )); // = 8192
 
 
 
-    /** Cache of records of image files that are file-system accessible.  Each entry comprises an
-      * absolute, normalized path to an image file (key) mapped to a record of the image it contains.
+    /** Store of records of image files that are file-system accessible, each keyed by an absolute,
+      * normalized path to an image file.  Its budget is given by option `-record-budget`.
+      *
+      *     @see #imageFilesLocal_get(Path,Function)
+      *     @see #imageFilesLocal_put(Path,ImageFile)
+      *     @see ImagingOptions#recordBudget()
+      */
+    private final ImageFileStore imageFilesLocal;
+
+
+
+    /** Returns from the store a record of the given image file, first forming and storing one
+      * by way of `recorder` if none is stored.  This method is thread safe.  Concurrent calls
+      * for the same image file share a single formation of its record, that of the first call.
+      *
+      *     @param imageFile The absolute, normalized path of an image file.
+      *     @param recorder The means of forming a record of the image file.
+      *       It is called at most once per image file, and in the calling thread.
+      *     @see #imageFilesLocal
+      */
+    ImageFile imageFilesLocal_get( final Path imageFile, final Function<Path,ImageFile> recorder ) {
+        return imageFilesLocal.get( imageFile, recorder ); }
+
+
+
+    /** Stores a record of the given image file, replacing any already stored.
+      * This method is thread safe.
+      *
+      *     @param imageFile The absolute, normalized path of an image file.
+      *     @see #imageFilesLocal
       */
-    final Map<Path,ImageFile> imageFilesLocal = new HashMap<>( initialCapacity( 0x1000 )); // = 4096
+    void imageFilesLocal_put( final Path imageFile, final ImageFile rec ) {
+        imageFilesLocal.put( imageFile, rec ); }
 
 
 
-    /** Whether the path matches an `-exclude` pattern.
+    /** Whether the path matches an `-exclude` pattern.  This method is thread safe.
       */
     boolean isExcluded( final Path path ) {
         final String p = path.toString();
-        for( final Matcher m: opt.exclusions() ) if( m.reset(p).find() ) return true;
+        for( final Matcher m: exclusionMatchers.get() ) if( m.reset(p).find() ) return true;
         return false; }
 
 
 
+    /** Whether the formal references of the source file presently under `formalResources_recordFrom`
+      * have all been recorded without cause to warn the user, such as to allow for a manifest entry.
+      */
+    private boolean isManifestable;
+
+
+
     /** Whether the inaccessibility of `file` is of a type known to result
       * from the `-reference-mapping` translation of a private reference.
       *
@@ -653,6 +913,41 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
+    private ImagingManifest manifest; // Do not modify after `formImage` reads it.
+
+
+
+    /** Returns a description of the conditions that govern the validity of the manifest.
+      *
+      *     @see ImagingManifest#read(Path,String)
+      */
+    private String manifestFingerprint() {
+        final StringBuilder b = new StringBuilder( boundaryPath.toString() );
+        b.append( '\n' ).append( opt.authorHomeDirectory() ); // Against which `~` references resolve.
+        for( final List<ReferenceTranslation> mapping: opt.referenceMappings() ) {
+            b.append( '\n' );
+            for( final ReferenceTranslation t: mapping ) {
+                final Pattern p = t.matcher().pattern();
+                b.append( '\t' ).append( p.flags() ).append( ' ' ).append( p.pattern() )
+                 .append( '\t' ).append( t.isBounded() ).append( ' ' ).append( t.replacement() ); }}
+        return b.toString(); }
+
+
+
+    /** The local formal resources of the source file presently under `formalResources_recordFrom`,
+      * as recorded in `formalResources`.
+      */
+    private final ArrayList<Path> manifestLocal = new ArrayList<>();
+
+
+
+    /** The remote formal resources of the source file presently under `formalResources_recordFrom`,
+      * as recorded in `formalResources`.
+      */
+    private final ArrayList<URI> manifestRemote = new ArrayList<>();
+
+
+
     /** Returns a multi-line description of a malformed URI reference,
       * fit to include as the message of a user report.
       *
@@ -670,47 +965,104 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
+    /** Returns the key of a `message` for the purpose of `warnOnce`.
+      *
+      *     @see #warnOnce(Path,DeferredPointer,String,Function)
+      */
+    static String messageKey( final String ref, final URISyntaxException x ) {
+        return "Malformed URI reference: " + x.getReason() + ": " + ref; }
+
+
+
     private final ArrayList<Warning> pendingWarnings = new ArrayList<>();
 
 
 
-    /** @param d The path of a source directory to pull into the mould.
+    /** The cache of compiled patterns shared by the pattern compilers of all translators.
       */
-    private void pullDirectory( final Path d ) {
-        try( final Stream<Path> pp = list( d )) {
-            for( final Path p: (Iterable<Path>)pp::iterator ) pullPath( p ); }
-        catch( IOException x ) { throw new Unhandled( x ); }}
+    final PatternCache patternCache;
 
 
 
-    /** @param f The path of a potential source file to pull into the mould.
+    /** Performs `task` on each of the given source files, concurrently where option `-threads` allows.
+      * Any reports that `task` issues through `err` or `wrn` from other threads are held back,
+      * then released in the order of `sourceFiles`, the order in which a single thread
+      * would have issued them.
+      *
+      *     @return An array of the same length as `sourceFiles` telling in the same order
+      *       whether the task succeeded on each.
       */
-    private void pullFile( final Path f ) {
-        if( !looksBrecciaLike( f )) return;
-        imageabilityDeterminations.computeIfAbsent( f, f_ -> {
-            final Imageability i;
-            if( opt.toForce() ) i = imageable;
-            else {
-                final Path fI = imageSibling( f );
-                try {
-                    if( !exists(fI) || getLastModifiedTime(f).compareTo(getLastModifiedTime(fI)) >= 0 ) {
-                        i = imageable; }
-                    else i = indeterminate; }
-                catch( IOException x ) { throw new Unhandled( x ); }}
-            return new ImageabilityReference( i ); }); }
+    private boolean[] perform( final List<Path> sourceFiles, final FileTask<C> task ) {
+        final int fN = sourceFiles.size();
+        final boolean[] results = new boolean[fN];
+        if( executor == null || fN < 2 ) {
+            for( int f = 0; f < fN; ++f ) results[f] = task.perform( translator, sourceFiles.get(f) );
+            return results; }
+        final ArrayList<Future<String>> reports = new ArrayList<>( fN ); // Each held back as a string.
+        for( int f = 0; f < fN; ++f ) {
+            final int g = f;
+            reports.add( executor.submit( () -> {
+                final StringWriter report = new StringWriter();
+                final FileTranslator<C> t = translators.take(); // One not in use by another thread.
+                reportWriter.set( new PrintWriter( report ));
+                try { results[g] = task.perform( t, sourceFiles.get( g )); }
+                finally {
+                    reportWriter.remove();
+                    translators.add( t ); }
+                return report.toString(); }));}
+        for( final Future<String> r: reports ) {
+            final String report;
+            try { report = r.get(); }
+            catch( final InterruptedException x ) {
+                Thread.currentThread().interrupt(); // Avoid hiding the fact of interruption.
+                throw new UnsourcedInterrupt( x ); }
+            catch( final ExecutionException x ) { throw unchecked( x ); }
+            errorWriter.print( report ); } // Releasing it in order.
+        return results; }
+
+
+
+    /** Pulls a source file into the mould, leaving the caller to enter the return value
+      * in `imageabilityDeterminations`.  This method is thread safe.
+      *
+      *     @param f The path of a source file to pull into the mould.
+      *     @param a The attributes of `f`.
+      *     @param aI The attributes of the image sibling of `f`, or null if `f` has none.
+      *     @return The initial imageability of `f`.
+      */
+    private Imageability pullFile( final Path f, final BasicFileAttributes a,
+          final BasicFileAttributes aI ) {
+        if( hashes != null ) hashes.admit( f, a );
+        final Imageability i;
+        if( opt.toForce() || aI == null ) i = imageable;
+        else if( a.lastModifiedTime().compareTo(aI.lastModifiedTime()) >= 0 ) { // Seemingly changed.
+            if( hashes != null && hashes.isUnchanged(f) ) i = indeterminate; // Unchanged in content.
+            else i = imageable; }
+        else i = indeterminate;
+        manifest.admit( f, a );
+        return i; }
+
 
 
+    /** Reports to the user the source files translated.
+      *
+      *     @param files The paths of the translated source files, relative to the boundary-path
+      *       directory.
+      *     @param countExpected The count of source files expected to be translated, or -1 if unknown.
+      */
+    private void reportTranslated( final List<Path> files, final int countExpected ) {
+        if( files.size() != countExpected  ||  countExpected != 0  &&  opt.verbosity() >= 2 ) {
+            out(1).println( "  " + files.size() + " translated" );
+            if( opt.verbosity() >= 2 ) for( final Path f: files ) out(2).println( "    ↶ " + f ); }}
 
-    /** @param p A path to pull into the mould.
+
+
+    /** Where the present thread is to write its reports in lieu of the `errorWriter`,
+      * or null if it may write directly to the `errorWriter`.
+      *
+      *     @see #perform(List,FileTask)
       */
-    private void pullPath( final Path p ) {
-        if( isExcluded( p )) return;
-        if( isReadable( p )) { // Herein cf. `formImage`.
-            if( isDirectory( p )) {
-                if( isWritable( p )) pullDirectory( p );
-                else warn( p, "Skipping this unwritable directory" ); }
-            else pullFile( p ); }
-        else if( wouldRead( p )) warn( p, "Skipping this unreadable path" ); }
+    private final ThreadLocal<PrintWriter> reportWriter = new ThreadLocal<>();
 
 
 
@@ -743,15 +1095,17 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
     /** Applies any due `-reference-mapping` translations to the given reference and returns the result.
+      * This method is thread safe.
       *
       *     @param reference A URI reference.
       *     @param referrer The referring source file, wherein the reference is contained.
       *     @return The same `reference` instance if no translation was applied; otherwise the translated
       *       result in the form of a new string of equal or different content.
       *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#reference-ma,reference-ma,translation'>
-      *         Command option `-reference-mapping`</a>
+      *         Command option `-reference-mapping`</a> *//*
+      *     @paramImplied #stringBuilder
       */
-    String translate( String reference, final Path referrer ) {
+    synchronized String translate( String reference, final Path referrer ) { // Its matchers are shared.
         for( final var tt: opt.referenceMappings() ) { // For each mapping given on the command line.
             for( final ReferenceTranslation t: tt ) { // For each translation given in the mapping.
                 final Matcher m = t.matcher().reset( reference );
@@ -776,11 +1130,83 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
+    /** Translates any source files now determined to be imageable, so forming part of the image,
+      * and determines each as either imaged or unimageable.
+      *
+      *     @param files The list to which to add the path of each source file translated,
+      *       relative to the boundary-path directory.
+      *     @return The count of imageables found.
+      */
+    private int translateImageables( final List<Path> files ) {
+        final ArrayList<Path> imageables = new ArrayList<>( /*initial capacity*/0x1000 ); // = 4096
+        for( final var det: imageabilityDeterminations.entrySet() ) {
+            if( det.getValue().get() == imageable ) imageables.add( det.getKey() ); }
+        final int c = imageables.size();
+        final boolean[] wereTranslated = perform( imageables, (t, sourceFile) -> {
+            try {
+                t.translate( sourceFile, outputDirectory.resolve(
+                  boundaryPathDirectory.relativize(sourceFile)).getParent() );
+                return true; }
+            catch( final ParseError x ) { flag( sourceFile, x ); }
+            catch( final ErrorAtFile x ) { flag( x ); }
+            return false; });
+        for( int i = 0; i < c; ++i ) {
+            final Path sourceFile = imageables.get( i );
+            final ImageabilityReference iR = imageabilityDeterminations.get( sourceFile );
+            if( wereTranslated[i] ) {
+                files.add( boundaryPathDirectory.relativize( sourceFile ));
+                iR.set( imaged ); }
+            else iR.set( unimageable ); }
+        return c; }
+
+
+
     private FileTranslator<C> translator; // Do not modify after `initialize`.
 
 
 
-    private final HashSet<String> warningsIssued = new HashSet<>();
+    /** The file translators for use by the threads of the `executor`, each taken from the queue
+      * for the duration of a single task, or null if there is no `executor`.
+      */
+    private BlockingQueue<FileTranslator<C>> translators;
+
+
+
+    /** Returns the cause of `x` if it is unchecked, otherwise `x` wrapped as an `Unhandled` exception.
+      *
+      *     @throws Error If the cause of `x` is an error.
+      */
+    static RuntimeException unchecked( final ExecutionException x ) {
+        final Throwable cause = x.getCause();
+        if( cause instanceof RuntimeException ) return (RuntimeException)cause;
+        if( cause instanceof Error ) throw (Error)cause;
+        return new Unhandled( x ); }
+
+
+
+    private final Set<String> warningsIssued = ConcurrentHashMap.newKeySet(); // [TS]
+
+
+
+    /** Records the content of each file on which the image depends, then writes the records
+      * to the output directory, alongside the image files.  Unless option `-fake` is in effect,
+      * this is the boundary-path directory itself, where the records replace their predecessors
+      * in place.  Writes nothing if the boundary path is a file.
+      */
+    private void writeRecords() {
+        if( hashes != null ) {
+            imageabilityDeterminations.forEach( (f, iR) -> {
+                if( iR.get() == unimageable ) return;
+                if( !hasFailed || hashes.isUnchanged(f) ) hashes.record( f ); });
+            formalResources.local.keySet().forEach( res -> {
+                if( !hasFailed || hashes.isUnchanged(res) ) hashes.record( res ); }); } /*
+              In case of failure, recording only the unchanged files, which ensures that any changed
+              file will be treated as such again, so retrying the formation of its dependant images. */
+        if( isDirectory( boundaryPath )) {
+            manifest.write( outputDirectory.resolve( ImagingManifest.fileName ));
+            if( hashes != null ) hashes.write( outputDirectory.resolve( ContentHashes.fileName ));
+            if( glyphCoverage != null ) {
+                glyphCoverage.write( outputDirectory.resolve( GlyphCoverage.fileName )); }}}
 
 
 
@@ -793,6 +1219,132 @@ public final class ImageMould<C extends ReusableCursor> {
 
 
 
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A task to pull into the mould the source files of a directory and its subdirectories.
+      * It reads the attributes of each directory entry once only, and determines whether a source file
+      * has an image sibling from the same listing, so sparing the file system any further queries.
+      * It pulls in subdirectories by forking subtasks.  [CSF]
+      */
+    private final class DirectoryPull extends RecursiveAction {
+
+
+        /** @param directory The path of a source directory to pull into the mould.
+          */
+        DirectoryPull( final Path directory ) { this.directory = directory; }
+
+
+
+        /** Enters into `imageabilityDeterminations` the source files pulled in by this task
+          * and its subtasks, in the order of the directory entries that gave rise to them.
+          * Call only after the task is done, and from the thread that forms the image.
+          */
+        void collate() {
+            for( final Object p: pulled ) {
+                if( p instanceof DirectoryPull pull ) pull.collate();
+                else {
+                    final var det = (Map.Entry<?,?>)p;
+                    imageabilityDeterminations.putIfAbsent( (Path)det.getKey(),
+                      new ImageabilityReference( (Imageability)det.getValue() )); }}}
+
+
+
+        /** Issues through `wrn` any warnings arising from this task and its subtasks,
+          * in the order of the directory entries that gave rise to them.
+          * Call only after the task is done.
+          */
+        void issueReports() {
+            for( final Object r: reports ) {
+                if( r instanceof DirectoryPull pull ) pull.issueReports();
+                else wrn().println( r ); }}
+
+
+
+       // ━━━  R e c u r s i v e   A c t i o n  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+        protected @Override void compute() {
+            final List<Path> entries = new ArrayList<>( /*initial capacity*/0x40 ); // = 64
+            try( final DirectoryStream<Path> stream = newDirectoryStream( directory )) {
+                if( !isWritable( directory )) { // Herein cf. `formImage`.
+                    warn( "Skipping this unwritable directory" );
+                    return; }
+                for( final Path p: stream ) entries.add( p ); }
+            catch( final AccessDeniedException x ) {
+                warn( "Skipping this unreadable path" );
+                return; }
+            catch( final IOException x ) { throw new Unhandled( x ); }
+            final Set<Path> listed = new HashSet<>( entries );
+            final Map<Path,BasicFileAttributes> attributes = new HashMap<>( // Of the listed entries,
+              initialCapacity( entries.size() ));       // cached that none be read more than once.
+            final Function<Path,BasicFileAttributes> reader = ImageMould::attributes;
+            final List<DirectoryPull> subtasks = new ArrayList<>();
+            for( final Path p: entries ) {
+                if( isExcluded( p )) continue;
+                final BasicFileAttributes a = attributes.computeIfAbsent( p, reader );
+                if( a == null ) continue; // The entry having disappeared since listing.
+                if( a.isDirectory() ) {
+                    final var pull = new DirectoryPull( p );
+                    subtasks.add( pull );
+                    pulled.add( pull ); // Holding a place for its own source files,
+                    reports.add( pull ); } // and for its own reports.
+                else if( looksBrecciaLike( p )) {
+                    if( !isReadable( p )) {
+                        reports.add( wrnHead(p) + "Skipping this unreadable path" );
+                        continue; }
+                    final Path pI = imageSibling( p );
+                    final BasicFileAttributes aI = listed.contains(pI)?
+                      attributes.computeIfAbsent(pI,reader) : null; // Not querying for a missing image.
+                    pulled.add( Map.entry( p, pullFile( p, a, aI ))); }}
+            invokeAll( subtasks ); }
+
+
+
+    ////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////
+
+
+        private final Path directory;
+
+
+
+        /** The source files pulled in by this task in order of pulling, each entered as a mapping
+          * of its path to its initial imageability, or as a subtask holding a place in the order
+          * for the source files of its own.
+          */
+        private final List<Object> pulled = new ArrayList<>();
+
+
+
+        /** The reports of this task in order of issue, each either a warning (string) or a subtask
+          * holding a place in the order for the reports of its own.
+          */
+        private final List<Object> reports = new ArrayList<>();
+
+
+
+        private void warn( final String message ) { reports.add( wrnHead(directory) + message ); }}
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A task to perform on a source file by way of a file translator.
+      *
+      *     @see #perform(List,FileTask)
+      */
+    private static @FunctionalInterface interface FileTask<C extends ReusableCursor> {
+
+
+        /** @param translator A file translator for the exclusive use of the task.
+          * @param sourceFile The absolute path of a source file.
+          * @return True if the task succeeded; false if it failed, having reported the failure.
+          */
+        public boolean perform( FileTranslator<C> translator, Path sourceFile ); }
+
+
+
    // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
 
 
@@ -813,12 +1365,19 @@ public final class ImageMould<C extends ReusableCursor> {
 
 // NOTES
 // ─────
+//   CSF  Collating the source files.  Though directory entries are listed in no particular order,
+//        the order of the listing is nonetheless preserved: that of the warnings by `issueReports`,
+//        and that of the source files by `collate`, which enters them in `imageabilityDeterminations`
+//        single threaded and in walk order, so making the iteration order of the map (and all that
+//        follows from it) independent of the scheduling of the subtasks.
+//
 //   LUR  Logging of unexpected yet recoverable IO errors.  Aside from avoiding a flood of reports
 //        on the `err` stream, these lines of code merely serve as examples (the only ones at present)
 //        of efficient report formation for logging purposes.
 //
-//   PSF  Pulling in the source files.  Here using a streamlined process, rather than `pullPath`
-//        whose added testing and messaging would be redundant for this topmost (boundary) path.
+//   PSF  Pulling in the source files.  For a boundary file, here using a streamlined process rather
+//        than that of `DirectoryPull`, whose added testing and messaging would be redundant for this
+//        topmost (boundary) path.
 //
 //   RC · Referencing code.  Cf. the comparably structured code of `BreccianFileTranslator.href`.
 //
@@ -826,8 +1385,14 @@ public final class ImageMould<C extends ReusableCursor> {
 //
 //   SM · Structural modification of a `HashMap` defined.
 //        https://docs.oracle.com/en/java/javase/17/docs/api/java.base/java/util/HashMap.html
+//
+//   TS · Thread safety.  Warnings issued once only are deduplicated across all threads.  Each warning
+//        names its file, and each file is the work of a single thread at any one time, so the warning
+//        that survives deduplication is the same one a single thread would have issued.  Records
+//        of image files are likewise shared across threads, each formed once only by the first thread
+//        to need it; other threads needing it meanwhile await its formation.
 
 
 
 
-                                             // Copyright © 2020-2022, 2024  Michael Allan.  Licence MIT.
+                                       // Copyright © 2020-2022, 2024, 2026  Michael Allan.  Licence MIT.
@@ -7,10 +7,14 @@ import static Breccia.parser.plain.Language.completesNewline;
 import static Breccia.parser.plain.Language.isDividerDrawing;
 import static Java.Nodes.hasName;
 import static Java.Nodes.isElement;
+import static Java.Nodes.isText;
 import static Java.Nodes.parentElement;
-import static Java.Nodes.successor;
 import static Java.Nodes.successorElement;
 import static Java.Nodes.textChildFlat;
+import static org.w3c.dom.Node.CDATA_SECTION_NODE;
+import static org.w3c.dom.Node.COMMENT_NODE;
+import static org.w3c.dom.Node.PROCESSING_INSTRUCTION_NODE;
+import static org.w3c.dom.Node.TEXT_NODE;
 
 
 public final class ImageNodes {
@@ -39,6 +43,27 @@ public final class ImageNodes {
 
 
 
+    /** Whether `e` is the image of a titling label, a division label that leads the line
+      * on which it occurs.
+      */
+    public static boolean isTitlingLabel( final Element e ) {
+        if( !hasName( "DivisionLabel", e )) return false;
+        final Node n = e.getPreviousSibling();
+        assert hasName( "Granum", n ); // A granum of flat text `t` precedes all division labels.
+     // final String t = textChildFlat( n );
+     /// but the imager may have wrapped that text child, e.g. with a self-hyperlink `a` element
+        final String t = sourceText( n );
+        char ch;
+        int c = t.length();
+        do --c; while( (ch = t.charAt(c)) == ' ' ); // Scan leftward past any plain space characters,
+        if( completesNewline( ch )) return true; /*    and there test for the presence of a newline.
+          That preceding newline proves that the label leads the line on which it occurs, which by
+          definition makes it a titling label. */
+        assert isDividerDrawing( ch ); // The only alternative is a divider drawing character.
+        return false; }
+
+
+
     /** The namespace name for HTML.
       */
     public static final String nsHTML = "http://www.w3.org/1999/xhtml";
@@ -101,20 +126,31 @@ public final class ImageNodes {
 
 
 
+    /** Appends to `b` the original text content of the given node, as per `sourceText`.
+      * Unlike the latter, this method forms no intermediate copies of the node or its text.
+      *
+      *     @return The same `b`.
+      *     @see #sourceText(Node)
+      */
+    public static StringBuilder appendSourceText( final Node node, final StringBuilder b ) {
+        final short type = node.getNodeType();
+        if( type == COMMENT_NODE || type == PROCESSING_INSTRUCTION_NODE ) { // As per `getTextContent`.
+            return b.append( node.getNodeValue() ); }
+        appendSourceText_( node, b );
+        return b; }
+
+
+
     /** The original text content of the given node prior to any translation.  The original text
       * is recovered as the text content of the node and its descendants exclusive of any contained
       * within an element marked by an `{@linkplain #nsImager img}:nonOriginalText` attribute.
       *
       *     @return The original text content, or the empty string if there is none.
+      *     @see #appendSourceText(Node,StringBuilder)
       */
-    public static String sourceText( Node node ) { // Changing?  Sync → `image.js`.
-        if( hasAttribute_nonOriginalText( node )) return "";
-        node = node.cloneNode( /*deeply*/true );
-        for( Node p, n = successor(p = node);  n != null;  n = successor(p = n) ) {
-            if( hasAttribute_nonOriginalText( n )) {
-                n.getParentNode().removeChild( n );
-                n = p; }} // Resume from the predecessor of element `n`, now removed.
-        return node.getTextContent(); }
+    public static String sourceText( final Node node ) { // Changing?  Sync → `image.js`.
+        if( isText( node )) return node.getNodeValue(); // Wanting no copy.
+        return appendSourceText( node, new StringBuilder() ).toString(); }
 
 
 
@@ -136,23 +172,9 @@ public final class ImageNodes {
       *     @see <a href='https://www.w3.org/TR/DOM-Level-3-Core/glossary.html#dt-document-order'>
       *       Definition of ‘document order’</a>
       */
-    public static Element successorTitlingLabel( Node n, final Node nBoundary ) {
-        Element e = successorElement( n );
-        do {
-            if( !hasName( "DivisionLabel", e )) continue;
-            n = e.getPreviousSibling();
-            assert hasName( "Granum", n ); // A granum of flat text `t` precedes all division labels.
-         // final String t = textChildFlat( n );
-         /// but the imager may have wrapped that text child, e.g. with a self-hyperlink `a` element
-            final String t = sourceText( n );
-            char ch;
-            int c = t.length();
-            do --c; while( (ch = t.charAt(c)) == ' ' ); // Scan leftward past any plain space characters,
-            if( completesNewline( ch )) return e; /*       and there test for the presence of a newline.
-              That preceding newline proves that the label leads the line on which it occurs, which by
-              definition makes it a titling label. */
-            assert isDividerDrawing( ch ); } // The only alternative is a divider drawing character.
-            while( (e = successorElement(e)) != nBoundary );
+    public static Element successorTitlingLabel( final Node n, final Node nBoundary ) {
+        for( Element e = successorElement(n);  e != nBoundary;  e = successorElement(e) ) {
+            if( isTitlingLabel( e )) return e; }
         return null; }
 
 
@@ -160,10 +182,25 @@ public final class ImageNodes {
 ////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
 
 
+    /** Appends the original text content of `node` and its descendants, in document order,
+      * skipping any subtree marked as non-original text.  Comments and processing instructions
+      * are skipped as `getTextContent` would skip them.
+      */
+    private static void appendSourceText_( final Node node, final StringBuilder b ) {
+        if( hasAttribute_nonOriginalText( node )) return;
+        switch( node.getNodeType() ) {
+            case TEXT_NODE, CDATA_SECTION_NODE -> b.append( node.getNodeValue() );
+            case COMMENT_NODE, PROCESSING_INSTRUCTION_NODE -> {}
+            default -> {
+                for( Node c = node.getFirstChild();  c != null;  c = c.getNextSibling() ) {
+                    appendSourceText_( c, b ); }}}}
+
+
+
     private static boolean hasAttribute_nonOriginalText( final Node n ) {
         return isElement(n) && ((Element)n).hasAttributeNS(nsImager,"nonOriginalText"); }}
         // Changing?  Sync → `image.js`.
 
 
 
-                                                  // Copyright © 2022, 2024  Michael Allan.  Licence MIT.
+                                            // Copyright © 2022, 2024, 2026  Michael Allan.  Licence MIT.
@@ -3,18 +3,14 @@ package Breccia.Web.imager;
 import Breccia.parser.ReusableCursor;
 import java.io.*;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
 import Java.Unhandled;
 import Java.UserError;
+import java.util.Set;
 
 import static Java.Files.emptyDirectory;
-import static Java.Files.verifyDirectoryArgument;
 import static java.lang.System.err;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.exists;
-import static java.nio.file.Files.walkFileTree;
-import static java.nio.file.FileVisitResult.CONTINUE;
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 
 public final class ImagingCommands {
@@ -24,7 +20,8 @@ public final class ImagingCommands {
 
 
 
-    /** Makes a Web image on behalf of a shell command.
+    /** Makes a Web image on behalf of a shell command.  Under option `-watch`, this method
+      * thereafter keeps the image up to date with changes to its source files, and never returns.
       *
       *     @param <C> The type of source cursor to use.
       *     @param name The name of the shell command.
@@ -39,26 +36,26 @@ public final class ImagingCommands {
         if( !exists( boundaryPath )) {
             err.println( name + ": No such file or directory: " + boundaryPath );
             return false; }
-        final Path mouldOutputDirectory; {
-            try { mouldOutputDirectory = emptyDirectory( createDirectories(
-              projectOutputDirectory.resolve( "mould" ))); }
-            catch( IOException x ) { throw new Unhandled( x ); }} // Unexpected here.
+        final Path mouldOutputDirectory; { // [IP]
+            if( opt.toFake() ) { // Then write the image files apart, never to be placed.
+                try { mouldOutputDirectory = emptyDirectory( createDirectories(
+                  projectOutputDirectory.resolve( "mould" ))); }
+                catch( IOException x ) { throw new Unhandled( x ); }} // Unexpected here.
+            else mouldOutputDirectory = null; } // Write them in place, to the boundary-path directory.
         boolean hasFailed;
+        boolean toWatch = opt.toWatch();
         final StringWriter errHolder = new StringWriter();
-        final ImageMould<C> mould;
-        try( final PrintWriter errWriter = new PrintWriter( errHolder )) {
-            mould = new ImageMould<>( boundaryPath, opt, mouldOutputDirectory, errWriter );
-            mould.initialize( tMaker.newTranslator( mould ));
-            try { hasFailed = !mould.formImage(); }
-            catch( final UserError x ) {
-                err.println( name + ": " + x.getMessage() );
-                hasFailed = true; }
-            errWriter.flush(); }
-        try { placeImageFiles( /*from*/mouldOutputDirectory, /*to*/mould.boundaryPathDirectory, opt ); }
-        catch( IOException x ) { throw new Unhandled( x ); } /* Failure might occur owing to an
-          unwritable directory, but this is unlikely; the mould images only writeable directories. */
-        err.print( errHolder.toString() );
-        err.flush();
+        final PrintWriter errWriter = new PrintWriter( errHolder ); // Needs no closing. [SW]
+        final ImageMould<C> mould = new ImageMould<>( boundaryPath, opt, mouldOutputDirectory,
+          errWriter );
+        mould.initialize( tMaker );
+        try { hasFailed = !mould.formImage(); }
+        catch( final UserError x ) {
+            err.println( name + ": " + x.getMessage() );
+            hasFailed = true;
+            toWatch = false; } // No image having been formed.
+        finish( errWriter, errHolder );
+        if( toWatch ) watch( mould, errWriter, errHolder, opt );
         return !hasFailed; }
 
 
@@ -66,22 +63,44 @@ public final class ImagingCommands {
 ////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
 
 
-    /** Moves all simple files of directory `dFrom` to the same relative path of `dTo`,
-      * replacing any that are already present.
+    /** Releases any reports held in `errHolder`.
+      */
+    private static void finish( final PrintWriter errWriter, final StringWriter errHolder ) {
+        errWriter.flush();
+        err.print( errHolder.toString() );
+        err.flush();
+        errHolder.getBuffer().setLength( 0 ); }
+
+
+
+    /** Keeps the image of `mould` up to date with changes to its source files.  Never returns.
       *
-      *     @throws IllegalArgumentException Unless `dFrom` and `dTo` are directories.
+      *     @see ImagingOptions#toWatch()
       */
-    private static void placeImageFiles​( final Path dFrom, final Path dTo, final ImagingOptions opt )
-          throws IOException {
-        verifyDirectoryArgument( dFrom );
-        verifyDirectoryArgument( dTo );
-        final boolean toDo = !opt.toFake();
-        walkFileTree( dFrom, new SimpleFileVisitor<Path>() {
-            public @Override FileVisitResult visitFile( final Path f, BasicFileAttributes _a )
-                  throws IOException {
-                if( toDo ) Files.move( f, dTo.resolve(dFrom.relativize(f)), REPLACE_EXISTING );
-                return CONTINUE; }}); }}
+    private static void watch( final ImageMould<?> mould, final PrintWriter errWriter,
+          final StringWriter errHolder, final ImagingOptions opt ) {
+        try( final SourceWatcher watcher = new SourceWatcher( mould )) {
+            for( ;; ) {
+                opt.out(1).println( "Watching for changes" );
+                final Set<Path> changed = watcher.take();
+                if( opt.toFake() ) emptyDirectory( mould.outputDirectory ); /* Of the files left
+                  unplaced, which else would obstruct their reformation. */
+                mould.reformImage( changed );
+                finish( errWriter, errHolder ); }}
+        catch( IOException x ) { throw new Unhandled( x ); }}}
+
+
+
+// NOTES
+// ─────
+//   IP · Imaging in place.  Each image file is written directly to its final directory, by way of
+//        a temporary sibling that then is moved atomically into place.  This spares a separate pass
+//        to place the files, which would copy each in full wherever the project output directory lies
+//        on another file system.  Only under option `-fake` are the files written apart, in the project
+//        output directory, where they remain unplaced.  See also `BreccianFileTranslator` § AR.
+//
+//   SW · A `PrintWriter` that wraps a `StringWriter` holds no resources that need closing.
 
 
 
-                                                   // Copyright © 2020-2023  Michael Allan.  Licence MIT.
+                                             // Copyright © 2020-2023, 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,220 @@
+package Breccia.Web.imager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import Java.Unhandled;
+
+import static Breccia.Web.imager.Project.logger;
+import static Breccia.Web.imager.Project.replaceIfChanged;
+import static Breccia.Web.imager.Project.temporarySibling;
+import static Java.Hashing.initialCapacity;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/** A record of the formal resources of source files, persisted from one imaging command to the next.
+  * It spares the mould the parsing of any source file that is unchanged since its formal resources
+  * were last recorded.  The manifest is stored in the boundary-path directory under the file name
+  * `{@value #fileName}`.
+  *
+  * <p>A manifest is valid only under the same boundary path and `-reference-mapping` translations
+  * as those under which it was formed.  It holds no entry for a source file whose formal references
+  * gave cause to warn the user, lest reuse of the entry would silence the warning or, worse,
+  * overlook the repair of a broken reference.</p>
+  *
+  * <p>Methods `admit`, `entry` and `record` are thread safe.</p>
+  *
+  *     @see ImageMould#formalResources
+  */
+final class ImagingManifest {
+
+
+    /** Makes an empty manifest.
+      *
+      *     @param directory The directory in which the manifest is to be stored.
+      *     @param fingerprint A description of the conditions under which the manifest is formed.
+      */
+    ImagingManifest( final Path directory, final String fingerprint ) {
+        this.directory = directory;
+        this.fingerprint = fingerprint; }
+
+
+
+    /** Admits the given source file to this manifest, carrying forward any earlier entry for it
+      * that remains valid.
+      *
+      *     @param sourceFile The absolute, normalized path of a source file.
+      *     @param a The present attributes of `sourceFile`.
+      */
+    void admit( final Path sourceFile, final BasicFileAttributes a ) {
+        attributes.put( sourceFile, a );
+        final Entry e = entriesFormer.get( sourceFile );
+        if( e != null && e.time == time(a) && e.size == a.size() ) entries.put( sourceFile, e ); }
+
+
+
+    /** Returns the valid entry of the given source file, or null if it has none.
+      */
+    Entry entry( final Path sourceFile ) { return entries.get( sourceFile ); }
+
+
+
+    /** The name of a manifest file.
+      */
+    static final String fileName = ".Breccia.Web.imager_manifest";
+
+
+
+    /** Reads from the given file any manifest that was formed under the given fingerprint.
+      * Any manifest formed under another fingerprint, or in another version of this class,
+      * is treated as non-existent.
+      *
+      *     @param file The path of a manifest file.
+      *     @param fingerprint The present fingerprint.
+      *     @see #ImagingManifest(Path,String)
+      */
+    static ImagingManifest read( final Path file, final String fingerprint ) {
+        final var m = new ImagingManifest( file.getParent(), fingerprint );
+        try( final var in = new DataInputStream( new BufferedInputStream( newInputStream( file )))) {
+            if( in.readInt() != version || !in.readUTF().equals( fingerprint )) return m;
+            for( int e = in.readInt(); e > 0; --e ) {
+                final Path sourceFile = m.directory.resolve( in.readUTF() );
+                final long time = in.readLong();
+                final long size = in.readLong();
+                final Path[] local = new Path[in.readInt()];
+                for( int r = 0; r < local.length; ++r ) local[r] = Path.of( in.readUTF() );
+                final URI[] remote = new URI[in.readInt()];
+                for( int r = 0; r < remote.length; ++r ) remote[r] = new URI( in.readUTF() );
+                m.entriesFormer.put( sourceFile, new Entry( time, size, List.of(local), List.of(remote) )); }}
+        catch( final NoSuchFileException x ) {} // No manifest has yet been formed.
+        catch( final IOException|URISyntaxException x ) {
+            logger.warning( () -> "Ignoring the unreadable manifest `" + file + "`: " + x ); // [LUR]
+            m.entriesFormer.clear(); }
+        return m; }
+
+
+
+    /** Records an entry for the given source file, replacing any earlier entry.
+      *
+      *     @param sourceFile The path of a source file earlier admitted to this manifest.
+      *     @param local The formal resources of `sourceFile` that are file-system accessible,
+      *       each a normalized path to an existent resource.
+      *     @param remote The formal resources of `sourceFile` that are network accessible.
+      *     @see #admit(Path,BasicFileAttributes)
+      */
+    void record( final Path sourceFile, final List<Path> local, final List<URI> remote ) {
+        final BasicFileAttributes a = attributes.get( sourceFile );
+        entries.put( sourceFile, new Entry( time(a), a.size(), List.copyOf(local), List.copyOf(remote) )); }
+
+
+
+    /** Removes any entry for the given source file.
+      */
+    void remove( final Path sourceFile ) { entries.remove( sourceFile ); }
+
+
+
+    /** Writes this manifest to the given file, replacing any file already there
+      * unless its content would be unchanged.
+      */
+    void write( final Path file ) {
+        final Path fileTemp = temporarySibling( file );
+        try( final var out = new DataOutputStream( new BufferedOutputStream(
+              newOutputStream( fileTemp )))) {
+            out.writeInt( version );
+            out.writeUTF( fingerprint );
+            out.writeInt( entries.size() );
+            for( final var entry: new TreeMap<>(entries).entrySet() ) { /* Sorted, so that unchanged
+                  content is written alike. */
+                out.writeUTF( directory.relativize(entry.getKey()).toString() );
+                final Entry e = entry.getValue();
+                out.writeLong( e.time );
+                out.writeLong( e.size );
+                out.writeInt( e.local.size() );
+                for( final Path r: e.local ) out.writeUTF( r.toString() );
+                out.writeInt( e.remote.size() );
+                for( final URI r: e.remote ) out.writeUTF( r.toString() ); }}
+        catch( final IOException x ) { throw new Unhandled( x ); }
+        replaceIfChanged( file, fileTemp ); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Admitted source files (keys) mapped each to its attributes (value).
+      */
+    private final Map<Path,BasicFileAttributes> attributes = new ConcurrentHashMap<>(
+      initialCapacity( 0x2000/*source files*/ )); // = 8192
+
+
+
+    private final Path directory;
+
+
+
+    /** Source files (keys) mapped each to its valid entry (value).
+      */
+    private final Map<Path,Entry> entries = new ConcurrentHashMap<>(
+      initialCapacity( 0x2000/*source files*/ )); // = 8192
+
+
+
+    /** Source files (keys) mapped each to its entry (value) as read from file, whether valid or not.
+      */
+    private final Map<Path,Entry> entriesFormer = new HashMap<>(
+      initialCapacity( 0x2000/*source files*/ )); // = 8192
+
+
+
+    private final String fingerprint;
+
+
+
+    private static long time( final BasicFileAttributes a ) {
+        return a.lastModifiedTime().to( NANOSECONDS ); }
+
+
+
+    /** The version of the manifest file format.
+      */
+    private static final int version = 1;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** The entry of a source file in the manifest.
+      *
+      *     @param time The last-modified time of the source file in nanoseconds since the epoch.
+      *     @param size The size of the source file in bytes.
+      *     @param local The formal resources of the source file that are file-system accessible,
+      *       each a normalized path to a resource that existed when the entry was formed.
+      *     @param remote The formal resources of the source file that are network accessible.
+      */
+    static record Entry( long time, long size, List<Path> local, List<URI> remote ) {}}
+
+
+
+// NOTES
+// ─────
+//   LUR  Logging of unexpected yet recoverable IO errors.  See `ImageMould`.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -16,6 +16,8 @@ import static Breccia.Web.imager.Project.zeroBased;
 import static Breccia.Web.imager.ReferenceTranslation.newTranslation;
 import static Java.IntralineCharacterPointer.markedLine;
 import static java.lang.Float.parseFloat;
+import static java.lang.Integer.parseUnsignedInt;
+import static java.lang.Math.max;
 import static java.lang.System.err;
 import static java.lang.System.getProperty;
 import static java.nio.file.Files.readString;
@@ -81,6 +83,25 @@ public class ImagingOptions extends Options {
 
 
 
+    /** The time in seconds allowed for each pattern of a hyperlink to find its match,
+      * or zero for no limit.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#pattern-time,pattern-time'>
+      *         Command option `-pattern-time-limit`</a>
+      */
+    public final int patternTimeLimit() { return patternTimeLimit; }
+
+
+
+    /** The budget in megabytes (MiB) for the records of image files held in memory.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#record-budge,record-budge'>
+      *         Command option `-record-budget`</a>
+      */
+    public final int recordBudget() { return recordBudget; }
+
+
+
     /** List of occurences of the `-reference-mapping` option, each itself a list
       * of reference translations.
       *
@@ -91,6 +112,16 @@ public class ImagingOptions extends Options {
 
 
 
+    /** The number of threads to use for collating and translating source files,
+      * and for finishing their images.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#threads,threads-N'>
+      *         Command option `-threads`</a>
+      */
+    public final int threads() { return threads; }
+
+
+
     /** Whether to run without effect.
       *
       *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#fake'>
@@ -109,6 +140,15 @@ public class ImagingOptions extends Options {
 
 
 
+    /** Whether to check the content hash of a file before deeming it changed.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#hash-check'>
+      *         Command option `-hash-check`</a>
+      */
+    public final boolean toHashCheck() { return toHashCheck; }
+
+
+
     /** Whether to image mathematic expressions using MathJax.
       *
       *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#math'>
@@ -118,6 +158,24 @@ public class ImagingOptions extends Options {
 
 
 
+    /** Whether to match the patterns of hyperlinks in linear time wherever they allow.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#linear-match'>
+      *         Command option `-linear-match`</a>
+      */
+    public final boolean toMatchLinearly() { return toMatchLinearly; }
+
+
+
+    /** Whether to keep the Web image up to date with changes to its source files, once formed.
+      *
+      *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#watch'>
+      *         Command option `-watch`</a>
+      */
+    public final boolean toWatch() { return toWatch; }
+
+
+
    // ━━━  O p t i o n s  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
 
 
@@ -236,6 +294,15 @@ public class ImagingOptions extends Options {
 
 
 
+    private int patternTimeLimit = 30;
+
+
+
+    private int recordBudget = (int)max( 1, Runtime.getRuntime().maxMemory() / 8 >> 20 ); /* An eighth
+      of the maximum heap size, by default. */
+
+
+
     private List<List<ReferenceTranslation>> referenceMappings = new ArrayList<>(
       /*initial capacity*/4 );
 
@@ -252,6 +319,10 @@ public class ImagingOptions extends Options {
 
 
 
+    private int threads = 1;
+
+
+
     private boolean toFake;
 
 
@@ -260,10 +331,22 @@ public class ImagingOptions extends Options {
 
 
 
+    private boolean toHashCheck;
+
+
+
     private boolean toImageMath;
 
 
 
+    private boolean toMatchLinearly;
+
+
+
+    private boolean toWatch;
+
+
+
    // ━━━  O p t i o n s  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
 
 
@@ -286,7 +369,20 @@ public class ImagingOptions extends Options {
         else if( arg.equals( "-fake" )) toFake = true;
         else if( arg.equals( "-force" )) toForce = true;
         else if( arg.startsWith( s = "-glyph-test-font=" )) glyphTestFont = value( arg, s );
+        else if( arg.equals( "-hash-check" )) toHashCheck = true;
+        else if( arg.equals( "-linear-match" )) toMatchLinearly = true;
         else if( arg.equals( "-math" )) toImageMath = true;
+        else if( arg.startsWith( s = "-pattern-time-limit=" )) {
+            patternTimeLimit = parseUnsignedInt( value( arg, s ));
+            if( patternTimeLimit < 0 ) { // Then the value exceeds `Integer.MAX_VALUE`, having wrapped.
+                err.println( commandName + ": Pattern time limit must be at most " + Integer.MAX_VALUE
+                  + ": " + arg );
+                isGo = false; }}
+        else if( arg.startsWith( s = "-record-budget=" )) {
+            recordBudget = parseUnsignedInt( value( arg, s ));
+            if( recordBudget < 1 ) {
+                err.println( commandName + ": Record budget must be at least 1: " + arg );
+                isGo = false; }}
         else if( arg.startsWith( s = "-reference-mapping=" )) {
             final List<ReferenceTranslation> tt = new ArrayList<>( /*initial capacity*/8 );
             tt: {
@@ -315,6 +411,12 @@ public class ImagingOptions extends Options {
                     break arg; }
                 else assert v == vN; }
             referenceMappings.add( unmodifiableList( tt )); }
+        else if( arg.startsWith( s = "-threads=" )) {
+            threads = parseUnsignedInt( value( arg, s ));
+            if( threads < 1 ) {
+                err.println( commandName + ": Thread count must be at least 1: " + arg );
+                isGo = false; }}
+        else if( arg.equals( "-watch" )) toWatch = true;
         else isGo = super.initialize( arg );
         return isGo; }}
 
@@ -328,4 +430,4 @@ public class ImagingOptions extends Options {
 
 
 
-                                                   // Copyright © 2022-2024  Michael Allan.  Licence MIT.
+                                             // Copyright © 2022-2024, 2026  Michael Allan.  Licence MIT.
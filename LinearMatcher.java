@@ -0,0 +1,277 @@
+package Breccia.Web.imager;
+
+import static Breccia.Web.imager.LinearPattern.ATOM;
+import static Breccia.Web.imager.LinearPattern.BOL;
+import static Breccia.Web.imager.LinearPattern.EOL;
+import static Breccia.Web.imager.LinearPattern.JMP;
+import static Breccia.Web.imager.LinearPattern.MATCH;
+import static Breccia.Web.imager.LinearPattern.SPLIT;
+import static java.lang.Character.isHighSurrogate;
+import static java.lang.Character.isLowSurrogate;
+import static java.lang.Character.toCodePoint;
+
+
+/** A matcher that runs in linear time, simulating the Thompson automaton of a `LinearPattern`
+  * over the text in a single pass per match.  The threads of the automaton are kept in order
+  * of preference, such that the match it finds is the one that backtracking would find.
+  * The one exception is a search region that ends between the two halves of a surrogate pair,
+  * where `java.util.regex` itself behaves inconsistently.  Regions here end on fractal boundaries.
+  */
+final class LinearMatcher implements RegionMatcher {
+
+
+    /** @param text The text to search.  Its content must not change.
+      */
+    LinearMatcher( final LinearPattern pattern, final CharSequence text ) {
+        this.pattern = pattern;
+        this.text = text;
+        to = text.length();
+        final int n = pattern.op.length;
+        programLength = n;
+        final int nStates = n << 1; // For each instruction, both itself and its pair continuation. [PC]
+        list = new ThreadList( nStates );
+        listNext = new ThreadList( nStates );
+        marks = new int[nStates]; }
+
+
+
+   // ━━━  R e g i o n   M a t c h e r  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    public @Override int end() {
+        if( first < 0 ) throw new IllegalStateException( "No match available" );
+        return last; }
+
+
+
+    public @Override boolean find() {
+        int c = last;
+        if( c == first ) ++c; // Past an empty match.
+        if( c < from ) c = from;
+        if( c > to ) {
+            first = -1;
+            return false; }
+        return search( c ); }
+
+
+
+    public @Override RegionMatcher region( final int start, final int end ) {
+        if( start < 0 || start > end || end > text.length() ) {
+            throw new IndexOutOfBoundsException( "start " + start + ", end " + end ); }
+        from = start;
+        to = end;
+        first = -1;
+        last = 0;
+        return this; }
+
+
+
+    public @Override int regionEnd() { return to; }
+
+
+
+    public @Override int regionStart() { return from; }
+
+
+
+    public @Override int start() {
+        if( first < 0 ) throw new IllegalStateException( "No match available" );
+        return first; }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Adds to `l` the given thread, first following it through all instructions that consume
+      * no text.  Threads are added in order of preference, and any that reach a state
+      * already occupied are dropped, being less preferred.
+      *
+      *     @param pc The program counter of the thread, or that plus `programLength`
+      *       for a pair continuation.  [PC]
+      *     @param c The offset in `text` at which `l` is positioned.
+      *     @param start The offset at which the thread began its match.
+      */
+    private void add( final ThreadList l, final int pc, final int c, final int start ) {
+        if( marks[pc] == generation ) return;
+        marks[pc] = generation;
+        if( pc >= programLength ) {
+            l.add( pc, start );
+            return; }
+        final int[] op = pattern.op;
+        switch( op[pc] ) {
+            case JMP -> add( l, pattern.x[pc], c, start );
+            case SPLIT -> {
+                add( l, pattern.x[pc], c, start );
+                add( l, pattern.y[pc], c, start ); }
+            case BOL -> { if( isLineStart( c )) add( l, pc + 1, c, start ); }
+            case EOL -> { if( isLineEnd( c )) add( l, pc + 1, c, start ); }
+            default -> l.add( pc, start ); }} // `ATOM` or `MATCH`.
+
+
+
+    /** The offset of the start of the last match, or -1 if there is none.
+      */
+    private int first = -1;
+
+
+
+    private int from;
+
+
+
+    /** The generation of the thread list under formation, which marks its occupied states.
+      */
+    private int generation;
+
+
+
+    /** Whether `c` is the end of a line, as `$` in multi-line mode would have it.
+      */
+    private boolean isLineEnd( final int c ) {
+        if( c == to ) return true;
+        final char ch = text.charAt( c );
+        if( ch == '\n' ) return c == 0 || text.charAt(c-1) != '\r'; // Not between `\r\n`.
+        return ch == '\r' || ch == 0x85 || (ch|1) == 0x2029; }
+
+
+
+    /** Whether `c` is the start of a line, as `^` in multi-line mode would have it.
+      */
+    private boolean isLineStart( final int c ) {
+        if( c == to ) return false; // As in Perl, no line starts at the end of the input.
+        if( c > from ) {
+            final char ch = text.charAt( c - 1 );
+            if( ch != '\n' && ch != '\r' && (ch|1) != 0x2029 && ch != 0x85 ) return false;
+            if( ch == '\r' && text.charAt(c) == '\n' ) return false; } // Between `\r\n`.
+        return true; }
+
+
+
+    /** The offset of the end of the last match, or of the point from which to search.
+      */
+    private int last;
+
+
+
+    /** The list of threads at the present offset of the search, in order of preference.
+      */
+    private ThreadList list;
+
+
+
+    /** The list of threads at the next offset of the search.
+      */
+    private ThreadList listNext;
+
+
+
+    /** The generation in which each state (indexed by the program counter of its thread)
+      * was last occupied.
+      */
+    private final int[] marks;
+
+
+
+    private final LinearPattern pattern;
+
+
+
+    private final int programLength;
+
+
+
+    /** Searches for a match that starts at or after offset `c`.
+      */
+    private boolean search( int c ) {
+        boolean isMatched = false;
+        int mStart = -1, mEnd = -1;
+        list.clear();
+        ++generation;
+        for( ;; ++c ) {
+            if( !isMatched && c <= to ) add( list, 0, c, c ); // Starting a thread of least preference.
+            if( list.size == 0  &&  (isMatched || c >= to) ) break;
+            listNext.clear();
+            ++generation;
+            for( int t = 0; t < list.size; ++t ) {
+                final int pc = list.pc[t];
+                final int start = list.start[t];
+                if( pc >= programLength ) { // Then consume the low surrogate of a pair. [PC]
+                    add( listNext, pc - programLength, c + 1, start );
+                    continue; }
+                if( pattern.op[pc] == MATCH ) {
+                    isMatched = true;
+                    mStart = start;
+                    mEnd = c;
+                    break; } // Cutting off all threads of lesser preference.
+                assert pattern.op[pc] == ATOM;
+                if( c >= to ) continue;
+                final char ch = text.charAt( c );
+                if( isHighSurrogate( ch ) && c + 1 < text.length() ) {
+                    final char chLow = text.charAt( c + 1 );
+                    if( isLowSurrogate( chLow )) { // Then the atom must take the pair as a whole.
+                        if( c + 2 <= to  &&  pattern.atom[pc].test( toCodePoint( ch, chLow ))) {
+                            add( listNext, pc + 1 + programLength, c + 1, start ); }
+                        continue; }}
+                if( pattern.atom[pc].test( ch )) add( listNext, pc + 1, c + 1, start ); }
+            final ThreadList l = list;
+            list = listNext;
+            listNext = l; }
+        if( isMatched ) {
+            first = mStart;
+            last = mEnd;
+            return true; }
+        first = -1;
+        return false; }
+
+
+
+    private final CharSequence text;
+
+
+
+    private int to;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A list of automaton threads, each a program counter and the offset at which its match began.
+      */
+    private static final class ThreadList {
+
+
+        ThreadList( final int capacity ) {
+            pc = new int[capacity];
+            start = new int[capacity]; }
+
+
+        void add( final int pc, final int start ) {
+            this.pc[size] = pc;
+            this.start[size] = start;
+            ++size; }
+
+
+        void clear() { size = 0; }
+
+
+        final int[] pc;
+
+
+        int size;
+
+
+        final int[] start; }}
+
+
+
+// NOTES
+// ─────
+//   PC · Pair continuation.  An atom that matches a surrogate pair consumes it in two steps, the second
+//        by way of a continuation state whose program counter is offset by `programLength`.  So each
+//        step of the automaton advances a single character, keeping its threads in lockstep.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
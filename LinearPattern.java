@@ -0,0 +1,655 @@
+package Breccia.Web.imager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import static java.lang.Character.isSurrogate;
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.DOTALL;
+import static java.util.regex.Pattern.MULTILINE;
+import static java.util.regex.Pattern.UNICODE_CASE;
+
+
+/** A pattern compiled for matching in linear time.  It takes the form of a program for the
+  * Thompson automaton that a `LinearMatcher` runs, whose threads keep the order of preference
+  * that backtracking would give them.  So it finds the very matches that `java.util.regex` would,
+  * yet in time bounded by the product of the lengths of text and program, never exponential.
+  *
+  * <p>Only a subset of the Java pattern language compiles to this form: literals, character classes,
+  * the dot, line anchors, `\R`, groups, alternation, and greedy or lazy quantifiers.  Lookaround,
+  * back references, possessive quantifiers, boundary matchers and inline flags do not, nor do
+  * patterns that could gain nothing from it.  For these, use `java.util.regex` directly.</p>
+  *
+  * <p>Instances are immutable, and may be shared across threads.</p>
+  *
+  *     @see #compile(Pattern)
+  */
+final class LinearPattern {
+
+
+    private LinearPattern( final int[] op, final int[] x, final int[] y, final IntPredicate[] atom ) {
+        this.op = op;
+        this.x = x;
+        this.y = y;
+        this.atom = atom; }
+
+
+
+    /** Returns a linear compilation of the given pattern, or null if it has none.  It has none
+      * if it contains constructs outside of the supported subset, or if it has neither alternation
+      * nor variable repetition, and so nothing for backtracking to blow up.
+      */
+    static LinearPattern compile( final Pattern p ) {
+        final int flags = p.flags();
+        if( (flags & ~(MULTILINE | DOTALL | CASE_INSENSITIVE | UNICODE_CASE)) != 0 ) return null;
+        if( (flags & MULTILINE) == 0 ) return null; // Always it is given. [MLM]
+        if( (flags & CASE_INSENSITIVE) != 0  &&  (flags & UNICODE_CASE) == 0 ) return null;
+        final Emitter e = new Emitter();
+        try {
+            e.emit( new Parser( p.pattern(), flags ).parse() );
+            e.add( MATCH ); }
+        catch( final Unsupported x ) { return null; }
+        if( !e.hasSplit ) return null;
+        final int n = e.op.size();
+        final int[] op = new int[n], x = new int[n], y = new int[n];
+        for( int pc = 0; pc < n; ++pc ) {
+            op[pc] = e.op.get( pc );
+            x[pc] = e.x.get( pc );
+            y[pc] = e.y.get( pc ); }
+        return new LinearPattern( op, x, y, e.atom.toArray( new IntPredicate[n] )); }
+
+
+
+   // ━━━  I n s t r u c t i o n s  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    /** Consume one code point that satisfies `atom[pc]`, then continue at `pc + 1`.
+      */
+    static final int ATOM = 0;
+
+
+
+    /** Assert the start of a line (multi-line `^`), then continue at `pc + 1`.
+      */
+    static final int BOL = 1;
+
+
+
+    /** Assert the end of a line (multi-line `$`), then continue at `pc + 1`.
+      */
+    static final int EOL = 2;
+
+
+
+    /** Continue at `x[pc]`.
+      */
+    static final int JMP = 3;
+
+
+
+    /** Succeed.
+      */
+    static final int MATCH = 4;
+
+
+
+    /** Continue at both `x[pc]` and `y[pc]`, preferring the former.
+      */
+    static final int SPLIT = 5;
+
+
+
+   // ━━━  P r o g r a m  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    /** The predicate of each `ATOM` instruction, indexed by program counter, or null elsewhere.
+      */
+    final IntPredicate[] atom;
+
+
+
+    /** The operation code of each instruction, indexed by program counter.
+      */
+    final int[] op;
+
+
+
+    /** The first operand of each instruction, indexed by program counter.
+      */
+    final int[] x;
+
+
+
+    /** The second operand of each instruction, indexed by program counter.
+      */
+    final int[] y;
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** The Latin-1 characters whose case variants `java.util.regex` omits from its bit sets
+      * for case-insensitive character classes, in ascending order.  Instead it matches these
+      * as it would a literal.
+      */
+    private static final int[] classCaseExceptions = { 0x49, 0x4B, 0x53, 0x69, 0x6B, 0x73, 0xB5, 0xC5,
+      0xE5, 0xFF };
+
+
+
+    /** Returns a predicate that matches the given code point, as would the Java pattern engine
+      * matching a literal (with case insensitivity if `isCI`).
+      */
+    private static IntPredicate literal( final int ch, final boolean isCI ) {
+        if( isCI ) {
+            final int upper = toUpperCase( ch );
+            final int lower = toLowerCase( upper );
+            if( upper != lower ) return t -> t == lower || toLowerCase(toUpperCase(t)) == lower; }
+        return t -> t == ch; }
+
+
+
+    /** The limit on the number of instructions in a program.
+      */
+    private static final int programLimit = 0x1000; // = 4096
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A series of alternatives, in order of preference.
+      */
+    private static final class Alternation extends Node {
+
+
+        Alternation( final List<Node> alternatives ) { this( alternatives, false ); }
+
+
+        /** @param isLinebreak Whether this alternation is the expansion of a `\R` linebreak.
+          */
+        Alternation( final List<Node> alternatives, final boolean isLinebreak ) {
+            this.alternatives = alternatives;
+            this.isLinebreak = isLinebreak; }
+
+
+        final @Override boolean hasLinebreak() {
+            if( isLinebreak ) return true;
+            for( final Node n: alternatives ) if( n.hasLinebreak() ) return true;
+            return false; }
+
+
+        final @Override boolean isNullable() {
+            for( final Node n: alternatives ) if( n.isNullable() ) return true;
+            return false; }
+
+
+        final List<Node> alternatives;
+
+
+        private final boolean isLinebreak; }
+
+
+
+    /** A zero-width assertion of the start or end of a line.
+      */
+    private static final class Assertion extends Node {
+
+
+        Assertion( final int op ) { this.op = op; }
+
+
+        final @Override boolean hasLinebreak() { return false; }
+
+
+        final @Override boolean isNullable() { return true; }
+
+
+        final int op; }
+
+
+
+    /** A node that consumes a single code point.
+      */
+    private static final class Atom extends Node {
+
+
+        Atom( final IntPredicate predicate ) { this.predicate = predicate; }
+
+
+        final @Override boolean hasLinebreak() { return false; }
+
+
+        final @Override boolean isNullable() { return false; }
+
+
+        final IntPredicate predicate; }
+
+
+
+    /** A series of nodes to match in sequence.
+      */
+    private static final class Concatenation extends Node {
+
+
+        Concatenation( final List<Node> nodes ) { this.nodes = nodes; }
+
+
+        final @Override boolean hasLinebreak() {
+            for( final Node n: nodes ) if( n.hasLinebreak() ) return true;
+            return false; }
+
+
+        final @Override boolean isNullable() {
+            for( final Node n: nodes ) if( !n.isNullable() ) return false;
+            return true; }
+
+
+        final List<Node> nodes; }
+
+
+
+    /** The means of emitting a program from a syntax tree.
+      */
+    private static final class Emitter {
+
+
+        /** Appends an instruction and returns its program counter.
+          */
+        int add( final int opcode ) throws Unsupported {
+            final int pc = op.size();
+            if( pc >= programLimit ) throw new Unsupported();
+            op.add( opcode );
+            x.add( 0 );
+            y.add( 0 );
+            atom.add( null );
+            return pc; }
+
+
+        void emit( final Node n ) throws Unsupported {
+            if( n instanceof Atom t ) atom.set( add(ATOM), t.predicate );
+            else if( n instanceof Assertion t ) add( t.op );
+            else if( n instanceof Concatenation t ) for( final Node m: t.nodes ) emit( m );
+            else if( n instanceof Alternation a ) {
+                hasSplit = true;
+                final int[] jumps = new int[a.alternatives.size() - 1]; // To the end, from all but last.
+                for( int i = 0; i < jumps.length; ++i ) {
+                    final int split = add( SPLIT );
+                    x.set( split, split + 1 );
+                    emit( a.alternatives.get( i ));
+                    jumps[i] = add( JMP );
+                    y.set( split, op.size() ); }
+                emit( a.alternatives.get( jumps.length ));
+                for( final int j: jumps ) x.set( j, op.size() ); }
+            else {
+                final Repetition r = (Repetition)n;
+                for( int i = 0; i < r.min; ++i ) emit( r.body );
+                if( r.max == r.min ) return;
+                hasSplit = true;
+                if( r.max < 0 ) { // Then repeat without limit.
+                    final int split = add( SPLIT );
+                    emit( r.body );
+                    x.set( add(JMP), split );
+                    branch( split, split + 1, op.size(), r.isGreedy );
+                    return; }
+                final int[] splits = new int[r.max - r.min]; // Each an optional repetition.
+                for( int i = 0; i < splits.length; ++i ) {
+                    splits[i] = add( SPLIT );
+                    emit( r.body ); }
+                for( final int split: splits ) branch( split, split + 1, op.size(), r.isGreedy ); }}
+
+
+        /** Sets the operands of instruction `split`, preferring `body` if `isGreedy`, else `out`.
+          */
+        private void branch( final int split, final int body, final int out, final boolean isGreedy ) {
+            x.set( split, isGreedy ? body : out );
+            y.set( split, isGreedy ? out : body ); }
+
+
+        final List<IntPredicate> atom = new ArrayList<>();
+
+        boolean hasSplit;
+
+        final List<Integer> op = new ArrayList<>();
+
+        final List<Integer> x = new ArrayList<>();
+
+        final List<Integer> y = new ArrayList<>(); }
+
+
+
+    /** A node of the syntax tree of a pattern.
+      */
+    private static abstract class Node {
+
+
+        /** Whether this node is or contains a `\R` linebreak.
+          */
+        abstract boolean hasLinebreak();
+
+
+        /** Whether this node can match the empty string.
+          */
+        abstract boolean isNullable(); }
+
+
+
+    /** A parser of the subset of the Java pattern language that compiles to linear form.
+      * Its input is presumed valid, having already compiled as a `java.util.regex.Pattern`.
+      */
+    private static final class Parser {
+
+
+        Parser( final String s, final int flags ) {
+            this.s = s;
+            isCI = (flags & CASE_INSENSITIVE) != 0;
+            isDotAll = (flags & DOTALL) != 0; }
+
+
+        Node parse() throws Unsupported {
+            final Node n = alternation();
+            if( c < s.length() ) throw new Unsupported();
+            return n; }
+
+
+        private Node alternation() throws Unsupported {
+            final List<Node> alternatives = new ArrayList<>();
+            alternatives.add( concatenation() );
+            while( c < s.length() && s.charAt(c) == '|' ) {
+                ++c;
+                alternatives.add( concatenation() ); }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation( alternatives ); }
+
+
+        private Node atom() throws Unsupported {
+            final char ch = s.charAt( c++ );
+            switch( ch ) {
+                case '(' -> {
+                    if( s.startsWith( "?:", c )) c += 2; // A non-capturing group.
+                    else if( s.startsWith( "?", c )) throw new Unsupported(); // Lookaround, flags, etc.
+                    final Node n = alternation(); // Capturing or not, the same here.
+                    if( c >= s.length() || s.charAt(c) != ')' ) throw new Unsupported();
+                    ++c;
+                    return n; }
+                case '[' -> { return new Atom( characterClass() ); }
+                case '.' -> {
+                    return new Atom( isDotAll ? t -> true : t -> t != '\n' && t != '\r'
+                      && (t|1) != 0x2029 && t != 0x85 ); }
+                case '^' -> { return new Assertion( BOL ); }
+                case '$' -> { return new Assertion( EOL ); }
+                case '\\' -> { return escape(); }
+                case '*', '+', '?', '{' -> throw new Unsupported(); }
+            return new Atom( literal( plain(ch), isCI )); }
+
+
+        /** The cursor, an offset in `s`.
+          */
+        private int c;
+
+
+        /** Parses a character class, the cursor just past its opening bracket.
+          */
+        private IntPredicate characterClass() throws Unsupported {
+            boolean isNegated = false;
+            if( c < s.length() && s.charAt(c) == '^' ) {
+                isNegated = true;
+                ++c; }
+            if( c < s.length() && s.charAt(c) == ']' ) throw new Unsupported();
+            final List<IntPredicate> members = new ArrayList<>();
+            for( ;; ) {
+                if( c >= s.length() ) throw new Unsupported();
+                char ch = s.charAt( c );
+                if( ch == ']' ) {
+                    ++c;
+                    break; }
+                if( ch == '[' || s.startsWith( "&&", c )) throw new Unsupported(); /* A union
+                  or intersection of classes. */
+                final int lo;
+                if( ch == '\\' ) {
+                    if( ++c >= s.length() ) throw new Unsupported();
+                    final IntPredicate p = predefinedClass( s.charAt( c ));
+                    if( p != null ) {
+                        ++c;
+                        members.add( p );
+                        continue; }
+                    lo = escapedCharacter(); }
+                else {
+                    lo = plain( ch );
+                    ++c; }
+                if( c + 1 < s.length() && s.charAt(c) == '-' && s.charAt(c+1) != ']' ) { // A range.
+                    ++c;
+                    ch = s.charAt( c++ );
+                    final int hi;
+                    if( ch == '\\' ) {
+                        if( c >= s.length() || predefinedClass(s.charAt(c)) != null ) {
+                            throw new Unsupported(); }
+                        hi = escapedCharacter(); }
+                    else if( ch == '[' ) throw new Unsupported();
+                    else hi = plain( ch );
+                    members.add( isCI ? t -> {
+                        if( lo <= t && t <= hi ) return true;
+                        final int up = toUpperCase( t );
+                        if( lo <= up && up <= hi ) return true;
+                        final int down = toLowerCase( up );
+                        return lo <= down && down <= hi; } : t -> lo <= t && t <= hi ); }
+                else members.add( classMember( lo )); }
+            final IntPredicate[] mm = members.toArray( new IntPredicate[0] );
+            final IntPredicate union = t -> {
+                for( final IntPredicate m: mm ) if( m.test( t )) return true;
+                return false; };
+            return isNegated ? union.negate() : union; }
+
+
+        /** Returns a predicate that matches the given code point as a member of a character class.
+          */
+        private IntPredicate classMember( final int ch ) {
+            if( isCI  &&  ch < 0x100  &&  Arrays.binarySearch( classCaseExceptions, ch ) < 0 ) {
+                final int lower = toLowerCase( ch ), upper = toUpperCase( ch ); // Both < 0x100.
+                return t -> t == ch || t == lower || t == upper; } // As would `java.util.regex`.
+            return literal( ch, isCI ); }
+
+
+        private Node concatenation() throws Unsupported {
+            final List<Node> nodes = new ArrayList<>();
+            while( c < s.length() ) {
+                final char ch = s.charAt( c );
+                if( ch == '|' || ch == ')' ) break;
+                nodes.add( quantified() ); }
+            return nodes.size() == 1 ? nodes.get(0) : new Concatenation( nodes ); }
+
+
+        /** Parses a backslashed construct outside of a character class, the cursor just past
+          * its backslash.
+          */
+        private Node escape() throws Unsupported {
+            if( c >= s.length() ) throw new Unsupported();
+            final char ch = s.charAt( c );
+            final IntPredicate p = predefinedClass( ch );
+            if( p != null ) {
+                ++c;
+                return new Atom( p ); }
+            if( ch == 'R' ) { // A linebreak, which (as of JDK 9) may backtrack from `\r\n` to `\r`.
+                ++c;
+                return new Alternation( List.of(
+                  new Concatenation( List.of( new Atom( t -> t == '\r' ), new Atom( t -> t == '\n' ))),
+                  new Atom( t -> t == '\n' || t == 0xB || t == '\f' || t == '\r' || t == 0x85
+                    || t == 0x2028 || t == 0x2029 )), /*isLinebreak*/true ); }
+            if( ch == 'Q' ) { // A quotation.
+                final int end = s.indexOf( "\\E", ++c );
+                final String q = s.substring( c, end < 0 ? s.length() : end );
+                c = end < 0 ? s.length() : end + 2;
+                if( c < s.length() && "*+?{".indexOf(s.charAt(c)) >= 0 ) {
+                    throw new Unsupported(); } // A quantifier here would apply to the last character alone.
+                final List<Node> nodes = new ArrayList<>( q.length() );
+                for( int i = 0; i < q.length(); ++i ) nodes.add( new Atom( literal( plain(q.charAt(i)),
+                  isCI )));
+                return new Concatenation( nodes ); }
+            return new Atom( literal( escapedCharacter(), isCI )); }
+
+
+        /** Parses the remainder of a backslashed character, the cursor just past its backslash.
+          */
+        private int escapedCharacter() throws Unsupported {
+            final char ch = s.charAt( c++ );
+            switch( ch ) {
+                case 't' -> { return '\t'; }
+                case 'n' -> { return '\n'; }
+                case 'r' -> { return '\r'; }
+                case 'f' -> { return '\f'; }
+                case 'a' -> { return 0x7; }
+                case 'e' -> { return 0x1B; }
+                case 'x' -> {
+                    if( c < s.length() && s.charAt(c) == '{' ) { // Then the form is `\x{h…h}`.
+                        final int end = s.indexOf( '}', ++c );
+                        if( end < 0 ) throw new Unsupported();
+                        return hex( end, end + 1 ); }
+                    return hex( c + 2, c + 2 ); } // The form is `\xhh`.
+                case 'u' -> { return hex( c + 4, c + 4 ); }}
+            if( Character.isLetterOrDigit( ch )) throw new Unsupported(); // Back reference, etc.
+            return plain( ch ); }
+
+
+        /** Parses the hexadecimal digits of a character from the cursor to `end`,
+          * then sets the cursor to `next`.
+          */
+        private int hex( final int end, final int next ) throws Unsupported {
+            if( end > s.length() || end == c || end - c > 6 ) throw new Unsupported();
+            final int ch;
+            try { ch = Integer.parseInt( s, c, end, 16 ); }
+            catch( final NumberFormatException x ) { throw new Unsupported(); }
+            c = next;
+            if( ch > 0xFFFF ) throw new Unsupported(); // Supplementary, which alters the search.
+            return plain( (char)ch ); }
+
+
+        private final boolean isCI;
+
+
+        private final boolean isDotAll;
+
+
+        private static boolean isSpace( final int t ) {
+            return t == ' ' || t == '\t' || t == '\n' || t == 0xB || t == '\f' || t == '\r'; }
+
+
+        private static boolean isWord( final int t ) {
+            return 'a' <= t && t <= 'z' || 'A' <= t && t <= 'Z' || '0' <= t && t <= '9' || t == '_'; }
+
+
+        /** Returns the given character, provided it may stand as a code point of its own.
+          */
+        private static char plain( final char ch ) throws Unsupported {
+            if( isSurrogate( ch )) throw new Unsupported(); // Paired, it would alter the search.
+            return ch; }
+
+
+        /** Returns the predicate of the predefined class named by the given character
+          * (as in `\d`, `\s` or `\w`), or null if it names none.
+          */
+        private static IntPredicate predefinedClass( final char ch ) {
+            return switch( ch ) {
+                case 'd' -> t -> '0' <= t && t <= '9';
+                case 'D' -> t -> !('0' <= t && t <= '9');
+                case 's' -> LinearPattern.Parser::isSpace;
+                case 'S' -> t -> !isSpace( t );
+                case 'w' -> LinearPattern.Parser::isWord;
+                case 'W' -> t -> !isWord( t );
+                default -> null; }; }
+
+
+        private Node quantified() throws Unsupported {
+            final Node n = atom();
+            if( c >= s.length() ) return n;
+            final char q = s.charAt( c ); // The quantifier, or its first character.
+            final int min, max;
+            switch( q ) {
+                case '*' -> { min = 0; max = -1; }
+                case '+' -> { min = 1; max = -1; }
+                case '?' -> { min = 0; max = 1; }
+                case '{' -> {
+                    final int end = s.indexOf( '}', c );
+                    if( end < 0 ) throw new Unsupported();
+                    final String bounds = s.substring( c + 1, end );
+                    final int comma = bounds.indexOf( ',' );
+                    try {
+                        if( comma < 0 ) min = max = Integer.parseInt( bounds );
+                        else {
+                            min = Integer.parseInt( bounds, 0, comma, 10 );
+                            max = comma + 1 == bounds.length() ? -1
+                              : Integer.parseInt( bounds, comma + 1, bounds.length(), 10 ); }}
+                    catch( final NumberFormatException x ) { throw new Unsupported(); }
+                    if( min > repetitionLimit || max > repetitionLimit ) throw new Unsupported();
+                    c = end; } // Leaving the cursor on the closing brace, as for the other quantifiers.
+                default -> { return n; }}
+            ++c;
+            boolean isGreedy = true;
+            if( c < s.length() ) {
+                if( s.charAt(c) == '?' ) {
+                    isGreedy = false;
+                    ++c; }
+                else if( s.charAt(c) == '+' ) throw new Unsupported(); } // Possessive.
+            if( n instanceof Assertion ) throw new Unsupported();
+            if( n.hasLinebreak() && q != '?' ) throw new Unsupported(); /* Under any quantifier but `?`,
+              `java.util.regex` declines to backtrack a linebreak from `\r\n` to `\r`. */
+            if( n.isNullable() && max != 1 ) throw new Unsupported(); /* Where a nullable body repeats,
+              the backtracking engine treats an empty iteration in ways that are hard to emulate. */
+            return new Repetition( n, min, max, isGreedy ); }
+
+
+        /** The limit on the bounds of a counted repetition.
+          */
+        private static final int repetitionLimit = 0x100; // = 256
+
+
+        private final String s; }
+
+
+
+    /** A node quantified to repeat between `min` and `max` times, or without limit if `max` is -1.
+      */
+    private static final class Repetition extends Node {
+
+
+        Repetition( final Node body, final int min, final int max, final boolean isGreedy ) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+            this.isGreedy = isGreedy; }
+
+
+        final @Override boolean hasLinebreak() { return body.hasLinebreak(); }
+
+
+        final @Override boolean isNullable() { return min == 0 || body.isNullable(); }
+
+
+        final Node body;
+
+        final int min, max;
+
+        final boolean isGreedy; }
+
+
+
+    /** Thrown on encountering a construct outside of the supported subset.
+      */
+    private static final class Unsupported extends Exception {
+
+
+        Unsupported() { super( null, null, /*suppression*/false, /*stack trace*/false ); }}}
+
+
+
+// NOTES
+// ─────
+//   MLM  Multi-line mode operation of Breccian pattern matchers.  See `PatternCompiler`.
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -2,6 +2,7 @@ package Breccia.Web.imager;
 
 import Breccia.parser.plain.Language;
 import Java.WhitespaceCollapser;
+import java.lang.ref.WeakReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.w3c.dom.Element;
@@ -41,10 +42,25 @@ final class ObjectClausePatternCompiler extends PatternCompiler {
       *     @param cR The image of a referential command from an afterlinker.
       */
     final Pattern compileDefaultPattern( final Element cR ) throws FailedInterpolation {
+        requiredLiteral = null; // The pattern comprises little but an opaque interpolation.
+        final Node parent; // Of the afterlinker, if the pattern depends on nothing else, or null.
+        if( mSubject == null ) {
+            final Node afterlinker = ownerFractum( cR );
+            assert hasName( "Afterlinker", afterlinker );
+            parent = afterlinker.getParentNode();
+            if( defaultPatternParent.get() == parent ) { // [DPM]
+                linearPattern = defaultLinearPattern;
+                return defaultPattern; }}
+        else parent = null;
         final StringBuilder bP = clear( stringBuilder );
         bP.append( anchoredPrefix_either );
         appendVariable_same( cR, 0, bP, /*toExpandWhitespace*/true );
-        return Pattern.compile( bP.toString(), CASE_INSENSITIVE | UNICODE_CASE | MULTILINE/*[MLM]*/ ); }
+        final Pattern p = compiled( bP, CASE_INSENSITIVE | UNICODE_CASE | MULTILINE/*[MLM]*/ );
+        if( parent != null ) {
+            defaultPatternParent = new WeakReference<>( parent );
+            defaultPattern = p;
+            defaultLinearPattern = linearPattern; }
+        return p; }
 
 
     /** The Java pattern matcher of the subject clause successfully matched to the first subject.
@@ -143,6 +159,27 @@ final class ObjectClausePatternCompiler extends PatternCompiler {
 
 
 
+    /** The linear compilation of `defaultPattern`, or null if it has none.
+      */
+    private LinearPattern defaultLinearPattern;
+
+
+
+    /** The default pattern last compiled from the parent head of an afterlinker.
+      *
+      *     @see #defaultPatternParent
+      */
+    private Pattern defaultPattern;
+
+
+
+    /** The parent of the afterlinker from whose head `defaultPattern` was compiled.  The reference
+      * is weak, lest it keep alive a document that is otherwise finished with.
+      */
+    private WeakReference<Node> defaultPatternParent = new WeakReference<>( null );
+
+
+
     private final StringBuilder stringBuilder = new StringBuilder( /*initial capacity*/0x800 ); // = 2048
 
 
@@ -193,12 +230,15 @@ final class ObjectClausePatternCompiler extends PatternCompiler {
 
 
 
-// NOTE
+// NOTES
 // ─────
+//   DPM  Default-pattern memo.  Consecutive afterlinkers commonly share the same parent, whose head then
+//        yields for each the same default pattern, so sparing its recomputation.
+//
 //   MLM  Multi-line mode operation of Breccian pattern matchers.
 //        http://reluk.ca/project/Breccia/language_definition.brec.xht#consistent,perl-s,multi-line
 //        http://reluk.ca/project/Breccia/language_definition.brec.xht#consistent,perl-s,multi-line:2
 
 
 
-                                                   // Copyright © 2022-2024  Michael Allan.  Licence MIT.
+                                             // Copyright © 2022-2024, 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,142 @@
+package Breccia.Web.imager;
+
+import java.util.IdentityHashMap;
+import org.w3c.dom.Element;
+
+import static java.lang.Integer.parseUnsignedInt;
+import static java.lang.System.identityHashCode;
+import static java.util.Arrays.fill;
+import static Java.Nodes.parentAsElement;
+
+
+/** A side index of the source offsets of the elements of an image document.  The offsets are given
+  * in the document by string attributes (`xunc`, `lineNumber` and `xuncLineEnds`) that would otherwise
+  * be parsed anew at each reading.  Here each is parsed at most once per document, then read as
+  * a primitive.  The index holds good only while the document is unchanged in these attributes,
+  * and must be cleared before the next document.
+  */
+final class OffsetIndex {
+
+
+    /** Empties this index, ready for the next document.
+      */
+    void clear() {
+        heads.clear();
+        if( xuncCount > 0 ) {
+            fill( xuncKeys, null );
+            xuncCount = 0; }}
+
+
+
+    /** Returns the offsets of the given fractal head.
+      */
+    HeadOffsets head( final Element head ) {
+        HeadOffsets h = heads.get( head );
+        if( h == null ) {
+            final String ends = head.getAttribute( "xuncLineEnds" );
+            final int[] lineEnds; { // Parsed from a space-separated list of decimal integers.
+                final int cN = ends.length();
+                int lN = 0;
+                for( int c = 0; c < cN; ++c ) {
+                    if( ends.charAt(c) != ' '  &&  (c == 0 || ends.charAt(c-1) == ' ') ) ++lN; }
+                lineEnds = new int[lN];
+                int l = -1;
+                for( int c = 0; c < cN; ++c ) {
+                    final char ch = ends.charAt( c );
+                    if( ch == ' ' ) continue;
+                    if( c == 0 || ends.charAt(c-1) == ' ' ) ++l; // Starting the next integer.
+                    lineEnds[l] = lineEnds[l] * 10 + (ch - '0'); }}
+            final Element fractum = parentAsElement( head );
+            h = new HeadOffsets( xunc(fractum), parseUnsignedInt(fractum.getAttribute("lineNumber")),
+              lineEnds );
+            heads.put( head, h ); }
+        return h; }
+
+
+
+    /** Returns the offset in the source text of the given fractum or granum, in UTF-16 code units.
+      */
+    int xunc( final Element e ) {
+        int k = slot( xuncKeys, e );
+        if( xuncKeys[k] == e ) return xuncValues[k];
+        final int x = parseUnsignedInt( e.getAttribute( "xunc" ));
+        if( (xuncCount + 1) << 1 > xuncKeys.length ) { // Keeping the load factor at most 1/2.
+            final Element[] keys = xuncKeys;
+            final int[] values = xuncValues;
+            xuncKeys = new Element[keys.length << 1];
+            xuncValues = new int[keys.length << 1];
+            for( int j = 0; j < keys.length; ++j ) {
+                if( keys[j] == null ) continue;
+                final int kNew = slot( xuncKeys, keys[j] );
+                xuncKeys[kNew] = keys[j];
+                xuncValues[kNew] = values[j]; }
+            k = slot( xuncKeys, e ); }
+        xuncKeys[k] = e;
+        xuncValues[k] = x;
+        ++xuncCount;
+        return x; }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private final IdentityHashMap<Element,HeadOffsets> heads = new IdentityHashMap<>();
+
+
+
+    /** Returns the slot of the given element in the given table of keys, by linear probing:
+      * either the slot that holds the element, or else the empty slot in which to put it.
+      *
+      *     @param keys A table whose length is a power of two, and which has at least one empty slot.
+      */
+    private static int slot( final Element[] keys, final Element e ) {
+        final int mask = keys.length - 1;
+        final int h = identityHashCode( e );
+        int k = (h ^ h >>> 16) & mask; // Spreading the high bits, as does `HashMap`.
+        for( Element eK; (eK = keys[k]) != null && eK != e; k = k + 1 & mask );
+        return k; }
+
+
+
+    /** The number of elements keyed in `xuncKeys`.
+      */
+    private int xuncCount;
+
+
+
+    /** The elements whose `xunc` attributes are parsed, each keyed by identity in an open-addressed
+      * hash table, in lieu of a map that would box each offset.  Its length is a power of two.
+      *
+      *     @see #xuncValues
+      */
+    private Element[] xuncKeys = new Element[0x400]; // = 1024
+
+
+
+    /** The parsed `xunc` attribute of each element of `xuncKeys`, at the same index.
+      */
+    private int[] xuncValues = new int[0x400]; // = 1024
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** The offsets of a fractal head.
+      *
+      *     @param xunc The offset in the source text of the fractum in UTF-16 code units.
+      *     @param lineNumber The ordinal number in the source text of the first line of the fractum.
+      *     @param lineEnds The offset in the source text of the end of each line of the head,
+      *       in order.  Treat as read only.
+      */
+    static record HeadOffsets( int xunc, int lineNumber, int[] lineEnds ) {
+
+
+        /** The offset in the source text of the end boundary of the head.
+          */
+        int xuncEnd() { return lineEnds[lineEnds.length - 1]; }}}
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,106 @@
+package Breccia.Web.imager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static Java.Hashing.initialCapacity;
+
+
+/** A bounded cache of compiled patterns, shared by the pattern compilers of all translators.
+  * Authors tend to reuse the same patterns across many files, which spares their recompilation,
+  * both to a `Pattern` and to any `LinearPattern` called for by option `-linear-match`.
+  * When full, the cache evicts the least recently used pattern.  This class is thread safe.
+  *
+  *     @see PatternCompiler
+  */
+final class PatternCache {
+
+
+    /** @param capacity The maximum number of patterns to hold.
+      * @param toCompileLinear Whether to compile each pattern also to any `LinearPattern`.
+      */
+    PatternCache( final int capacity, final boolean toCompileLinear ) {
+        this.toCompileLinear = toCompileLinear;
+        patterns = new LinkedHashMap<>( initialCapacity(capacity), /*load factor*/0.75f,
+          /*access order*/true ) {
+            protected @Override boolean removeEldestEntry( final Map.Entry<Key,Compilation> _e ) {
+                return size() > capacity; }}; }
+
+
+
+    /** Returns the compilation of `regex` with the given flags, reusing any that is cached.
+      *
+      *     @throws java.util.regex.PatternSyntaxException
+      *       As for {@linkplain Pattern#compile(String,int) Pattern.compile}.
+      */
+    Compilation compile( final String regex, final int flags ) {
+        final Key key = new Key( regex, flags );
+        Compilation c;
+        synchronized( this ) { c = patterns.get( key ); }
+        if( c != null ) {
+            hits.incrementAndGet();
+            return c; }
+        misses.incrementAndGet();
+        final Pattern p = Pattern.compile( regex, flags ); /* Outside of the lock,
+          which a slow compilation would hog. */
+        c = new Compilation( p, toCompileLinear? LinearPattern.compile(p) : null );
+        synchronized( this ) { patterns.put( key, c ); }
+        return c; }
+
+
+
+    /** The number of calls to `compile` that were answered from the cache.
+      */
+    long hits() { return hits.get(); }
+
+
+
+    /** The number of calls to `compile` that required an actual compilation.
+      */
+    long misses() { return misses.get(); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private final AtomicLong hits = new AtomicLong();
+
+
+
+    private final AtomicLong misses = new AtomicLong();
+
+
+
+    /** Cached compilations (values) each keyed by the source and flags of its pattern.
+      * Access only while synchronized on this cache.
+      */
+    private final LinkedHashMap<Key,Compilation> patterns;
+
+
+
+    private final boolean toCompileLinear;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** A compilation of a pattern.
+      *
+      *     @param pattern The compiled pattern.
+      *     @param linear Its linear compilation, or null if it has none
+      *       or option `-linear-match` is not in effect.
+      *     @see LinearPattern#compile(Pattern)
+      */
+    static record Compilation( Pattern pattern, LinearPattern linear ) {}
+
+
+
+    private static record Key( String regex, int flags ) {}}
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
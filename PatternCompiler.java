@@ -11,6 +11,7 @@ import static Java.Nodes.isElement;
 import static Java.Nodes.textChildFlat;
 import static Java.Patterns.metacharacters;
 import static Java.StringBuilding.clear;
+import static java.lang.Character.isSurrogate;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 import static java.util.regex.Pattern.DOTALL;
 import static java.util.regex.Pattern.MULTILINE;
@@ -35,7 +36,7 @@ class PatternCompiler {
 
 
     /** Returns the Java compilation of `eP`, with {@linkplain Pattern#flags() match flags}
-      * derived from  the `matchModifiers`.
+      * derived from  the `matchModifiers`.  Sets `linearPattern` and `requiredLiteral` accordingly.
       *
       *     @param eP The image of a regular-expression pattern within a pattern matcher.
       *     @param matchModifiers The match modifiers, or an empty string if there are none.
@@ -48,11 +49,14 @@ class PatternCompiler {
       // Match flags
       // ───────────
         int flags = MULTILINE; // [MLM]
+        boolean isCaseInsensitive = false;
         final boolean toExpandWhitespace; { // Whether expansive whitespace mode is enabled.
             boolean pIsGiven = false;
             final int mN = matchModifiers.length();
             for( int m = 0; m < mN; ++m ) switch( matchModifiers.charAt( m )) {
-                case 'i' -> flags |= CASE_INSENSITIVE | UNICODE_CASE;
+                case 'i' -> {
+                    flags |= CASE_INSENSITIVE | UNICODE_CASE;
+                    isCaseInsensitive = true; }
                 case 's' -> flags |= DOTALL;
                 case 'p' -> pIsGiven = true;
                 default -> {
@@ -63,10 +67,16 @@ class PatternCompiler {
       // Pattern
       // ───────
         final StringBuilder bP = clear( stringBuilder ); // The Java translation of `eP`.
+        clear( factor );
+        factorLongest = "";
+        boolean isPrefilterable = true; // Whether `eP` is simple enough to yield a `requiredLiteral`.
+        boolean isContextFree = true; // Whether `eP` asserts nothing of the text before its match.
         for( Node n = eP.getFirstChild();  n != null;  n = n.getNextSibling() ) {
             assert isElement( n ); // ↘ for reason
             switch( n.getLocalName()/* ≠ null, given the assertion above */) { // [NSC]
                 case "AnchoredPrefix" -> {
+                    factorClose();
+                    isContextFree = false; // Its `^` anchor looks behind.
                     final String tF = textChildFlat( n );
                     assert tF.length() == 2 && tF.charAt(0) == '^';
                     bP.append( switch( tF.charAt( 1 )) {
@@ -77,8 +87,11 @@ class PatternCompiler {
                 case "Granum" -> {
                     final String tF = textChildFlat( n );
                     assert hasNoMetacharacter( tF, 0 );
-                    append( tF, bP, toExpandWhitespace ); }
+                    append( tF, bP, toExpandWhitespace );
+                    factorAppend( tF, 0, toExpandWhitespace, isCaseInsensitive ); }
                 case "BackslashedSpecial" -> {
+                    factorClose();
+                    isContextFree = false; // It may be an assertion such as `\b`, which looks behind.
                     final String tF = textChildFlat( n );
                     final Matcher m = numberedCharacterBackslashMatcher.reset( tF );
                     if( m.matches() ) {
@@ -95,10 +108,37 @@ class PatternCompiler {
                     bP.append( tF.charAt( 0 )); // The literalized character, plus
                     if( tF.length() > 1 ) {     // any remainder of the `Granum`.
                         assert hasNoMetacharacter( tF, 1 );
-                        append( tF, 1, bP, toExpandWhitespace ); }}
-                case "Variable" -> append( (Element)n, bP, toExpandWhitespace );
-                default -> bP.append( textChildFlat( n )); }}
-        return Pattern.compile( bP.toString(), flags ); }
+                        append( tF, 1, bP, toExpandWhitespace ); }
+                    factorAppend( tF, 0, toExpandWhitespace, isCaseInsensitive ); }
+                case "Variable" -> {
+                    factorClose(); // Its value is opaque here, though literal.
+                    append( (Element)n, bP, toExpandWhitespace ); }
+                default -> { // A metacharacter, group, quantifier or the like.
+                    isPrefilterable = false; // Any of which may render optional the factors found.
+                    bP.append( textChildFlat( n )); }}}
+        final Pattern p = compiled( bP, flags );
+        factorClose();
+        requiredLiteral = isPrefilterable && factorLongest.length() > 0 ?
+          new RequiredLiteral( factorLongest, isCaseInsensitive, isContextFree ) : null;
+        return p; }
+
+
+
+    /** The linear compilation of the pattern last compiled, or null if it has none,
+      * as always it has none unless option `-linear-match` is in effect.
+      *
+      *     @see LinearPattern#compile(Pattern)
+      *     @see ImagingOptions#toMatchLinearly()
+      */
+    LinearPattern linearPattern;
+
+
+
+    /** A literal factor required of every match of the pattern last compiled, or null if none
+      * is known.  Patterns comprising little more than literal text and variable interpolations
+      * yield one, while richer patterns do not.
+      */
+    RequiredLiteral requiredLiteral;
 
 
 
@@ -149,6 +189,61 @@ class PatternCompiler {
 
 
 
+    /** Returns the compilation of pattern `bP` with the given flags, as taken from the pattern cache
+      * of the mould, or newly compiled there.  Sets `linearPattern` accordingly.
+      *
+      *     @throws PatternSyntaxException
+      *       As for {@linkplain Pattern#compile(String,int) Pattern.compile}.
+      *     @see ImageMould#patternCache
+      */
+    protected final Pattern compiled( final CharSequence bP, final int flags ) {
+        final PatternCache.Compilation c = mould.patternCache.compile( bP.toString(), flags );
+        linearPattern = c.linear();
+        return c.pattern(); }
+
+
+
+    /** The literal factor in formation.
+      */
+    private final StringBuilder factor = new StringBuilder( /*initial capacity*/0x100 ); // = 256
+
+
+
+    /** Appends to the literal factor in formation the literal characters of `seq`.
+      *
+      *     @param c The offset in `seq` at which to start appending.
+      */
+    private void factorAppend( final CharSequence seq, int c, final boolean toExpandWhitespace,
+          final boolean isCaseInsensitive ) {
+        for( final int cN = seq.length(); c < cN; ++c ) {
+            char ch = seq.charAt( c );
+            if( toExpandWhitespace && (ch == ' ' || ch == '\n' || ch == '\r') ) { /* Then in the
+                  compiled pattern `ch` belongs to an expansion of whitespace, no literal. */
+                factorClose();
+                continue; }
+            if( isCaseInsensitive ) {
+                if( isSurrogate( ch )) { // Then leave its comparison to the pattern engine.
+                    factorClose();
+                    continue; }
+                ch = RequiredLiteral.fold( ch ); }
+            factor.append( ch ); }}
+
+
+
+    /** Closes the literal factor in formation, keeping it as `factorLongest` if it is the longest.
+      */
+    private void factorClose() {
+        if( factor.length() > factorLongest.length() ) factorLongest = factor.toString();
+        clear( factor ); }
+
+
+
+    /** The longest literal factor closed since compilation began.
+      */
+    private String factorLongest;
+
+
+
     /** @param tF Flat text from the image of a regular-expression pattern.
       * @param c The offset in `tF` at which to start vetting.
       */
@@ -208,4 +303,4 @@ class PatternCompiler {
 
 
 
-                                                   // Copyright © 2022-2024  Michael Allan.  Licence MIT.
+                                             // Copyright © 2022-2024, 2026  Michael Allan.  Licence MIT.
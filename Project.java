@@ -1,5 +1,6 @@
 package Breccia.Web.imager;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
@@ -8,6 +9,12 @@ import java.util.logging.Logger;
 
 import static java.lang.Math.max;
 import static java.lang.System.getProperty;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.mismatch;
+import static java.nio.file.Files.move;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static Java.Paths.hasExtension;
 import static Java.URI_References.hasExtension;
 
@@ -42,6 +49,18 @@ public final class Project {
 
 
 
+    /** Returns for the given image path its index sibling: a namesake with a further `.fracta`
+      * extension, the path of its fracta index.  Assuming a path {@linkplain
+      * java.nio.file.FileSystem#getSeparator name separator} of ‘/’, the index sibling
+      * of `dir/foo.brec.xht`, for example, is `dir/foo.brec.xht.fracta`.
+      *
+      *     @param i A path to an image file.
+      */
+    public static Path indexSibling( final Path i ) {
+        return i.resolveSibling( i.getFileName().toString() + ".fracta" ); }
+
+
+
     /** The output directory of the present project.
       */
     public static final Path outputDirectory = Path.of( getProperty("java.io.tmpdir"),
@@ -188,10 +207,37 @@ public final class Project {
 
 
 
+    /** Moves `replacement` atomically into place over `file`, unless their content is the same,
+      * in which case it deletes `replacement` and leaves `file` untouched, timestamp and all.
+      *
+      *     @param file The path of a file, which need not exist.
+      *     @param replacement The path of a file on the same file system, typically
+      *       the {@linkplain #temporarySibling(Path) temporary sibling} of `file`.
+      */
+    static void replaceIfChanged( final Path file, final Path replacement ) {
+        try {
+            if( exists( file )  &&  mismatch( file, replacement ) == -1L ) delete( replacement );
+            else move( replacement, file, ATOMIC_MOVE, REPLACE_EXISTING ); }
+        catch( final IOException x ) { throw new Unhandled( x ); }}
+
+
+
+    /** Returns for the given file path its temporary sibling: a hidden namesake with a further `.tmp`
+      * extension, in which to write the file before moving it atomically into place.  Assuming a path
+      * {@linkplain java.nio.file.FileSystem#getSeparator name separator} of ‘/’, the temporary sibling
+      * of `dir/foo.brec.xht`, for example, is `dir/.foo.brec.xht.tmp`.
+      *
+      *     @param f A path to a file.
+      */
+    static Path temporarySibling( final Path f ) {
+        return f.resolveSibling( "." + f.getFileName().toString() + ".tmp" ); }
+
+
+
     /** Returns `max( index, 0 )`, so translating to zero any index of -1.
       */
     static int zeroBased( final int index ) { return max( index, 0 ); }}
 
 
 
-                                            // Copyright © 2020, 2022, 2024  Michael Allan.  Licence MIT.
+                                      // Copyright © 2020, 2022, 2024, 2026  Michael Allan.  Licence MIT.
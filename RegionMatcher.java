@@ -0,0 +1,73 @@
+package Breccia.Web.imager;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/** A matcher that finds successive matches of a pattern within a region of a text.  Its methods
+  * behave as do the like-named methods of `java.util.regex.Matcher`, with default (anchoring,
+  * non-transparent) bounds.
+  *
+  *     @see Matcher
+  */
+interface RegionMatcher {
+
+
+    /** Returns a matcher of the given pattern over `text`, one whose time is linear in the length
+      * of the text if the pattern allows, otherwise the matcher of the pattern itself.
+      *
+      *     @param pLinear The linear compilation of `p`, or null if it has none.
+      *     @see LinearPattern#compile(Pattern)
+      */
+    static RegionMatcher of( final Pattern p, final LinearPattern pLinear, final CharSequence text ) {
+        if( pLinear != null ) return new LinearMatcher( pLinear, text );
+        final Matcher m = p.matcher( text );
+        return new RegionMatcher() {
+            public @Override int end() { return m.end(); }
+            public @Override boolean find() { return m.find(); }
+            public @Override RegionMatcher region( final int start, final int end ) {
+                m.region( start, end );
+                return this; }
+            public @Override int regionEnd() { return m.regionEnd(); }
+            public @Override int regionStart() { return m.regionStart(); }
+            public @Override int start() { return m.start(); }}; }
+
+
+
+    /** @see Matcher#end()
+      */
+    public int end();
+
+
+
+    /** @see Matcher#find()
+      */
+    public boolean find();
+
+
+
+    /** @see Matcher#region(int,int)
+      */
+    public RegionMatcher region( int start, int end );
+
+
+
+    /** @see Matcher#regionEnd()
+      */
+    public int regionEnd();
+
+
+
+    /** @see Matcher#regionStart()
+      */
+    public int regionStart();
+
+
+
+    /** @see Matcher#start()
+      */
+    public int start(); }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -89,7 +89,7 @@ final class RemoteChangeProbe implements Runnable {
         final var rr = mould.formalResources.remote.entrySet().iterator();
         forEachRemaining( rr, (resource, dependants) -> {
             if( !host.equals( resource.getHost() )) return;
-            probe( resource, dependants );
+            if( !probe( resource, dependants )) return; // Needing no probe, so no pause.
             if( rr.hasNext() ) {
                 try { sleep( msQueryInterval ); }
                 catch( final InterruptedException x ) {
@@ -110,7 +110,9 @@ final class RemoteChangeProbe implements Runnable {
 
 
 
-    private void probe( final URI ref, final Set<Path> dependants ) {
+    /** @return Whether the resource was probed, false if it needed no probing.
+      */
+    private boolean probe( final URI ref, final Set<Path> dependants ) {
         if( !looksProbeable( ref )) throw new IllegalArgumentException();
 
       // Ensure the resource still needs probing
@@ -121,13 +123,14 @@ final class RemoteChangeProbe implements Runnable {
             if( depImageability.get() == indeterminate ) {
                 toProbe = true;
                 break; }}
-        if( !toProbe ) return;
+        if( !toProbe ) return false;
 
       // Probe the resource
       /* ──────────────────
         Deferred, as per
-        `http://reluk.ca/project/Breccia/Web/imager/notes.brec.xht#deferral,hTTP,fetches`. */; }}
+        `http://reluk.ca/project/Breccia/Web/imager/notes.brec.xht#deferral,hTTP,fetches`. */
+        return true; }}
 
 
 
-                                             // Copyright © 2020-2022, 2025  Michael Allan.  Licence MIT.
+                                        // Copyright © 2020-2022, 2025-2026  Michael Allan.  Licence MIT.
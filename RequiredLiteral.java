@@ -0,0 +1,96 @@
+package Breccia.Web.imager;
+
+import static java.lang.Character.isSurrogate;
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+
+
+/** A literal factor required of every match of a compiled pattern, a string that each match contains.
+  * It serves as a prefilter: where the factor is absent from a text, the pattern cannot match there,
+  * and a search for the factor costs far less than a run of the regular-expression engine.
+  *
+  *     @see PatternCompiler#requiredLiteral
+  */
+final class RequiredLiteral {
+
+
+    /** @param text The factor, non-empty.  If `isCaseInsensitive` then each of its characters
+      *   must be {@linkplain #fold(char) folded}, and none a surrogate.
+      * @param isCaseInsensitive Whether the pattern matches without regard to case
+      *   (with both `CASE_INSENSITIVE` and `UNICODE_CASE` flags).
+      * @param isContextFree Whether the pattern asserts nothing of the text that precedes
+      *   its match, such that a search may begin anywhere without changing the matches
+      *   found thereafter.
+      */
+    RequiredLiteral( final String text, final boolean isCaseInsensitive, final boolean isContextFree ) {
+        assert text.length() > 0;
+        this.text = text;
+        this.isCaseInsensitive = isCaseInsensitive;
+        this.isContextFree = isContextFree; }
+
+
+
+    /** Returns the case-folded form of `ch`, as the pattern engine itself folds for comparison
+      * under the `CASE_INSENSITIVE` and `UNICODE_CASE` flags.
+      */
+    static char fold( final char ch ) { return toLowerCase( toUpperCase( ch )); }
+
+
+
+    /** Returns the offset of the first occurrence of this factor in `seq` from `c` onward,
+      * such that the occurrence ends at or before `cEnd`; or -1 if there is none.
+      */
+    int indexIn( final CharSequence seq, final int c, final int cEnd ) {
+        final int last = cEnd - text.length(); // The last offset at which an occurrence may start.
+        if( !isCaseInsensitive ) {
+            if( seq instanceof String ) {
+                final int i = ((String)seq).indexOf( text, c );
+                return i <= last ? i : -1; }
+            final char first = text.charAt( 0 );
+            for( int i = c; i <= last; ++i ) {
+                if( seq.charAt(i) == first && isAt( seq, i )) return i; }
+            return -1; }
+        final char first = text.charAt( 0 );
+        for( int i = c; i <= last; ++i ) if( matches( seq.charAt(i), first ) && isAt( seq, i )) return i;
+        return -1; }
+
+
+
+    /** Whether the pattern asserts nothing of the text that precedes its match.
+      */
+    final boolean isContextFree;
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Whether this factor occurs in `seq` at offset `i`, given room for it there.
+      */
+    private boolean isAt( final CharSequence seq, final int i ) {
+        final int cN = text.length();
+        if( isCaseInsensitive ) {
+            for( int c = 1; c < cN; ++c ) {
+                if( !matches( seq.charAt(i + c), text.charAt(c) )) return false; }}
+        else for( int c = 1; c < cN; ++c ) if( seq.charAt(i + c) != text.charAt(c) ) return false;
+        return true; }
+
+
+
+    private final boolean isCaseInsensitive;
+
+
+
+    /** Whether under case insensitivity the character `ch` of a text may match the folded character
+      * `f` of a pattern.  The test is that of the pattern engine, or looser.
+      */
+    private static boolean matches( final char ch, final char f ) {
+        return ch == f || fold(ch) == f || isSurrogate(ch); } // Surrogates left for the engine to judge.
+
+
+
+    private final String text; }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,142 @@
+package Breccia.Web.imager;
+
+import Java.Unhandled;
+import Java.UnsourcedInterrupt;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
+import static java.nio.file.Files.walkFileTree;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+
+/** A watcher of the files at and under a boundary-path directory, reporting changes to them
+  * in batches for the purpose of incremental reimaging.  It ignores all image files (`.xht`),
+  * their fracta indices and temporary siblings, and the record files of the mould, lest the writing
+  * of these by the mould be taken for further changes.
+  *
+  *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#watch'>
+  *         Command option `-watch`</a>
+  */
+final class SourceWatcher implements AutoCloseable {
+
+
+    /** @param mould The mould whose boundary-path directory to watch.  Any directories that it
+      *   explicitly excludes are left unwatched.
+      */
+    SourceWatcher( final ImageMould<?> mould ) throws IOException {
+        this.mould = mould;
+        watchService = mould.boundaryPathDirectory.getFileSystem().newWatchService();
+        register( mould.boundaryPathDirectory, /*changed*/null ); }
+
+
+
+    /** Awaits the next change, then returns it in a batch with any further changes that follow
+      * in quick succession.
+      *
+      *     @return The absolute, normalized paths of the files that were created, modified or deleted.
+      *     @throws UnsourcedInterrupt If the present thread is interrupted.
+      */
+    Set<Path> take() {
+        final Set<Path> changed = new HashSet<>();
+        try {
+            WatchKey key = watchService.take();
+            for( ;; ) {
+                final Path directory = keyedDirectories.get( key );
+                for( final WatchEvent<?> event: key.pollEvents() ) {
+                    final WatchEvent.Kind<?> kind = event.kind();
+                    if( kind == OVERFLOW ) {
+                        mould.warn( directory, "Missed some changes, the watch having overflowed" );
+                        continue; }
+                    final Path p = directory.resolve( (Path)event.context() );
+                    final String name = p.getFileName().toString();
+                    if( name.endsWith( ".xht" ) || name.endsWith( ".xht.fracta" )) continue;
+                    if( name.startsWith(".") && name.endsWith(".tmp") ) continue; // A temporary sibling.
+                    if( isRecordFile( name )) continue;
+                    if( kind == ENTRY_CREATE ) register( p, changed ); // In case it is a directory.
+                    changed.add( p ); }
+                if( !key.reset() ) keyedDirectories.remove( key ); // The directory being gone.
+                key = watchService.poll( msQuietSpan, MILLISECONDS );
+                if( key == null ) {
+                    if( !changed.isEmpty() ) break; // Changes having ceased, so ending the batch.
+                    key = watchService.take(); }}} // Nothing but ignorable changes, so awaiting more.
+        catch( final InterruptedException x ) {
+            Thread.currentThread().interrupt(); // Avoid hiding the fact of interruption.
+            throw new UnsourcedInterrupt( x ); }
+        catch( final IOException x ) { throw new Unhandled( x ); }
+        return changed; }
+
+
+
+   // ━━━  A u t o   C l o s e a b l e  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    public @Override void close() throws IOException { watchService.close(); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** Whether `name` is the file name of a record that the mould keeps
+      * in the boundary-path directory.
+      */
+    private static boolean isRecordFile( final String name ) {
+        return name.equals( ImagingManifest.fileName ) || name.equals( ContentHashes.fileName )
+          || name.equals( GlyphCoverage.fileName ); }
+
+
+
+    /** Watched directories (values) each keyed by its watch key.
+      */
+    private final Map<WatchKey,Path> keyedDirectories = new HashMap<>();
+
+
+
+    private final ImageMould<?> mould;
+
+
+
+    /** The span of quiet, in milliseconds, that ends a batch of changes.
+      */
+    private static final long msQuietSpan = 100;
+
+
+
+    /** Registers for watching the given directory and its subdirectories, excepting any explicitly
+      * excluded.  Does nothing if `p` is not a directory.
+      *
+      *     @param p The path of a directory, or of another file.
+      *     @param changed Where to add the path of each file found at or under `p`, as for a newly
+      *       created directory whose content has escaped notice; or null to add nothing.
+      */
+    private void register( final Path p, final Set<Path> changed ) throws IOException {
+        if( !Files.isDirectory( p )) return;
+        walkFileTree( p, new SimpleFileVisitor<Path>() {
+            public @Override FileVisitResult preVisitDirectory( final Path d, BasicFileAttributes _a )
+                  throws IOException {
+                if( mould.isExcluded( d )) return SKIP_SUBTREE;
+                keyedDirectories.put( d.register( watchService, ENTRY_CREATE, ENTRY_DELETE,
+                  ENTRY_MODIFY ), d );
+                return CONTINUE; }
+            public @Override FileVisitResult visitFile( final Path f, BasicFileAttributes _a ) {
+                if( changed != null ) changed.add( f );
+                return CONTINUE; }}); }
+
+
+
+    private final WatchService watchService; }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
@@ -0,0 +1,107 @@
+package Breccia.Web.imager;
+
+import java.nio.ByteBuffer;
+
+
+/** A text stored compactly in a byte buffer, such as a memory-mapped file, and read through the view
+  * of a character sequence.  The form of storage is either Latin-1, one byte per character, or UTF-16
+  * (big endian), two bytes per character.  All methods of this class are thread safe, it reading
+  * the buffer by absolute index alone.
+  *
+  *     @see #encode(CharSequence)
+  */
+final class StoredText implements CharSequence {
+
+
+    /** @param buffer The buffer in which the text is stored.  Its content must not change.
+      * @param isLatin1 Whether the form of storage is Latin-1, as opposed to UTF-16.
+      */
+    StoredText( final ByteBuffer buffer, final boolean isLatin1 ) {
+        this( buffer, isLatin1, 0, buffer.limit() >> (isLatin1? 0 : 1) ); }
+
+
+
+    /** Encodes the given text in the form in which it would be stored: Latin-1 if every character
+      * is representable in that form, otherwise UTF-16.
+      *
+      *     @see #isLatin1(CharSequence)
+      */
+    static byte[] encode( final CharSequence text ) {
+        final int cN = text.length();
+        if( isLatin1( text )) {
+            final byte[] bb = new byte[cN];
+            for( int c = 0; c < cN; ++c ) bb[c] = (byte)text.charAt( c );
+            return bb; }
+        final ByteBuffer b = ByteBuffer.allocate( cN << 1 );
+        for( int c = 0; c < cN; ++c ) b.putChar( text.charAt( c ));
+        return b.array(); }
+
+
+
+    /** Whether every character of the given text is representable in Latin-1.
+      */
+    static boolean isLatin1( final CharSequence text ) {
+        for( int c = 0, cN = text.length(); c < cN; ++c ) if( text.charAt(c) > 0xFF ) return false;
+        return true; }
+
+
+
+   // ━━━  C h a r   S e q u e n c e  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    public @Override char charAt( final int c ) {
+        if( c < 0 || c >= length ) throw new IndexOutOfBoundsException( c );
+        return isLatin1 ? (char)(buffer.get(start + c) & 0xFF) : buffer.getChar( (start + c) << 1 ); }
+
+
+
+    public @Override int length() { return length; }
+
+
+
+    public @Override CharSequence subSequence( final int start, final int end ) {
+        if( start < 0 || end > length || start > end ) {
+            throw new IndexOutOfBoundsException( "start " + start + ", end " + end
+              + ", length " + length ); }
+        return new StoredText( buffer, isLatin1, this.start + start, end - start ); }
+
+
+
+    public @Override String toString() {
+        final char[] cc = new char[length];
+        for( int c = 0; c < length; ++c ) cc[c] = charAt( c );
+        return new String( cc ); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    private StoredText( final ByteBuffer buffer, final boolean isLatin1, final int start,
+          final int length ) {
+        this.buffer = buffer;
+        this.isLatin1 = isLatin1;
+        this.start = start;
+        this.length = length; }
+
+
+
+    private final ByteBuffer buffer;
+
+
+
+    private final boolean isLatin1;
+
+
+
+    private final int length;
+
+
+
+    /** The index in the buffer, in characters, of the first character of this text.
+      */
+    private final int start; }
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.
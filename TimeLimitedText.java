@@ -0,0 +1,87 @@
+package Breccia.Web.imager;
+
+import static java.lang.System.nanoTime;
+
+
+/** A text whose reading is bounded in time, for the sake of pattern matching that might otherwise
+  * run indefinitely.  The regular-expression engine reads its input through `charAt`, which here
+  * checks the clock at intervals and, once the deadline is past, throws `OvertimeMatch`.
+  *
+  *     @see <a href='http://reluk.ca/project/Breccia/Web/imager/bin/breccia-web-image.brec.xht#pattern-time,pattern-time'>
+  *         Command option `-pattern-time-limit`</a>
+  */
+final class TimeLimitedText implements CharSequence {
+
+
+    /** @param text The text to read.
+      * @param limit The time allowed for its reading in nanoseconds, counted from now.
+      */
+    TimeLimitedText( final CharSequence text, final long limit ) {
+        this.text = text;
+        deadline = nanoTime() + limit; }
+
+
+
+   // ━━━  C h a r   S e q u e n c e  ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+
+    /** @throws OvertimeMatch If the deadline is past.
+      */
+    public @Override char charAt( final int c ) {
+        if( --countdown < 0 ) {
+            countdown = checkInterval;
+            if( nanoTime() - deadline > 0 ) throw new OvertimeMatch(); }
+        return text.charAt( c ); }
+
+
+
+    public @Override int length() { return text.length(); }
+
+
+
+    /** Returns a subsequence of the underlying text, without limit.
+      */
+    public @Override CharSequence subSequence( final int start, final int end ) {
+        return text.subSequence( start, end ); }
+
+
+
+    public @Override String toString() { return text.toString(); }
+
+
+
+////  P r i v a t e  ////////////////////////////////////////////////////////////////////////////////////
+
+
+    /** The number of calls to `charAt` between consultations of the clock, which is costly
+      * relative to the reading of a character.
+      */
+    private static final int checkInterval = 0x1000; // = 4096
+
+
+
+    private int countdown = checkInterval;
+
+
+
+    private final long deadline; // In terms of `System.nanoTime`.
+
+
+
+    private final CharSequence text;
+
+
+
+   // ▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀▀
+
+
+    /** Thrown when the time allowed for the reading of a text runs out, midway through a match.
+      */
+    static final class OvertimeMatch extends RuntimeException {
+
+
+        OvertimeMatch() { super( null, null, /*suppression*/false, /*stack trace*/false ); }}}
+
+
+
+                                                        // Copyright © 2026  Michael Allan.  Licence MIT.